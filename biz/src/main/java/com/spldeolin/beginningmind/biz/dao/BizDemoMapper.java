@@ -1,11 +1,11 @@
 package com.spldeolin.beginningmind.biz.dao;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.spldeolin.beginningmind.biz.entity.BizDemoEntity;
+import com.spldeolin.beginningmind.core.common.CommonMapper;
 
 /**
  * @author Deolin 2019-03-18
  */
-public interface BizDemoMapper extends BaseMapper<BizDemoEntity> {
+public interface BizDemoMapper extends CommonMapper<BizDemoEntity> {
 
 }
\ No newline at end of file
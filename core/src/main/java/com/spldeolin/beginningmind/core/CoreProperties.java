@@ -1,5 +1,7 @@
 package com.spldeolin.beginningmind.core;
 
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 import lombok.Data;
@@ -24,6 +26,61 @@ public class CoreProperties {
      */
     private SnowFlakeProp snowFlake;
 
+    /**
+     * RedisCache的进程内一级缓存
+     */
+    private NearCacheProp nearCache;
+
+    /**
+     * Redis value的编解码器选用
+     */
+    private RedisCodecProp redisCodec;
+
+    /**
+     * 可重入分布式锁的租约与看门狗
+     */
+    private DistributedLockProp distributedLock;
+
+    /**
+     * CommonService.getAsync的批量合并
+     */
+    private BatchLoaderProp batchLoader;
+
+    /**
+     * CommonService.create(Collection)的多行INSERT
+     */
+    private MultiRowInsertProp multiRowInsert;
+
+    /**
+     * 读写分离
+     */
+    private ReadWriteSplittingProp readWriteSplitting;
+
+    /**
+     * Mapper调用统计
+     */
+    private MapperMetricsProp mapperMetrics;
+
+    /**
+     * 节点内的登录者缓存
+     */
+    private SignerProfileProp signerProfile;
+
+    /**
+     * 会话
+     */
+    private SessionProp session;
+
+    /**
+     * 无状态登录的访问令牌与刷新令牌
+     */
+    private SignedTokenProp signedToken;
+
+    /**
+     * 请求者IP的识别
+     */
+    private ClientIpProp clientIp;
+
     /**
      * E-Mail
      */
@@ -59,6 +116,265 @@ public class CoreProperties {
 
         private Long machineId;
 
+        /**
+         * 是否容忍时钟回拨（沿用上一次的时间戳继续分配，而不是抛出异常）
+         */
+        private Boolean clockBackwardsTolerant;
+
+        /**
+         * 容忍时钟回拨时，允许超前于时钟的最大毫秒数，超过后自旋等待时钟追上
+         */
+        private Long maxBorrowMillis;
+
+        /**
+         * 是否从Redis租用(datacenterId, machineId)，开启时忽略datacenterId和machineId
+         */
+        private Boolean leaseWorkerId;
+
+        /**
+         * worker ID租约时长（毫秒）
+         */
+        private Long leaseMillis;
+
+        /**
+         * worker ID续约间隔（毫秒），应明显小于leaseMillis
+         */
+        private Long leaseHeartbeatMillis;
+
+    }
+
+    @Data
+    public static class NearCacheProp {
+
+        /**
+         * 是否启用
+         */
+        private Boolean enabled;
+
+        /**
+         * 最多缓存的key个数
+         */
+        private Long maximumSize;
+
+        /**
+         * 写入后的存活时间（秒），也是跨节点失效通知丢失时脏读的上限
+         */
+        private Long expireSeconds;
+
+        /**
+         * 只有以这些前缀开头的key才进入一级缓存，为空时所有key都进入
+         * 一级缓存保存编码后的字节，每次命中都要解码，适合读远多于写、值不太大的key
+         */
+        private List<String> prefixes;
+
+    }
+
+    @Data
+    public static class RedisCodecProp {
+
+        /**
+         * 默认的编解码器（protostuff、kryo、smile、jdk）
+         */
+        private String defaultCodec;
+
+        /**
+         * Session属性的编解码器
+         */
+        private String sessionCodec;
+
+        /**
+         * key前缀 -> 编解码器，匹配多个时取最长的前缀
+         */
+        private Map<String, String> namespaces;
+
+    }
+
+    @Data
+    public static class DistributedLockProp {
+
+        /**
+         * 锁的租约时长（毫秒），持有者所在节点宕机时锁最迟在这之后自动释放
+         */
+        private Long leaseMillis;
+
+        /**
+         * 看门狗续约的间隔（毫秒），应明显小于leaseMillis
+         */
+        private Long watchdogIntervalMillis;
+
+    }
+
+    @Data
+    public static class BatchLoaderProp {
+
+        /**
+         * 收集窗口（微秒），第一个ID进入批次后开始计时
+         */
+        private Long windowMicros;
+
+        /**
+         * 批次中的ID达到这个数量时立即查询
+         */
+        private Integer maxKeys;
+
+        /**
+         * 执行批量查询的线程数
+         */
+        private Integer threads;
+
+        /**
+         * 等待执行的批次的队列容量，队列已满时批次直接失败
+         */
+        private Integer queueCapacity;
+
+    }
+
+    @Data
+    public static class MultiRowInsertProp {
+
+        /**
+         * 一条INSERT最多的行数，行较大时会按max_allowed_packet自动减少
+         */
+        private Integer chunkSize;
+
+    }
+
+    @Data
+    public static class ReadWriteSplittingProp {
+
+        /**
+         * 是否启用，不启用时只使用spring.datasource
+         */
+        private Boolean enabled;
+
+        /**
+         * 从库，驱动与连接池规格沿用spring.datasource
+         */
+        private List<ReplicaProp> replicas;
+
+        /**
+         * 复制延迟超过这个秒数的从库不再承担读取
+         */
+        private Long maxLagSeconds;
+
+        /**
+         * 从库健康检查的间隔（毫秒）
+         */
+        private Long checkIntervalMillis;
+
+        /**
+         * 查询复制延迟的SQL，为空时只检查连接是否可用
+         */
+        private String lagQuery;
+
+        /**
+         * lagQuery结果中表示延迟秒数的列
+         */
+        private String lagColumn;
+
+        @Data
+        public static class ReplicaProp {
+
+            private String url;
+
+            private String username;
+
+            private String password;
+
+            /**
+             * 为空时沿用spring.datasource.hikari.maximum-pool-size
+             */
+            private Integer maximumPoolSize;
+
+        }
+
+    }
+
+    @Data
+    public static class MapperMetricsProp {
+
+        /**
+         * 执行耗时达到这个毫秒数的SQL连同参数打印WARN日志
+         */
+        private Long slowQueryMillis;
+
+    }
+
+    @Data
+    public static class SignerProfileProp {
+
+        private Long maximumSize;
+
+        /**
+         * 写入后的存活时间，用户信息的变化最迟在这个秒数后生效
+         */
+        private Long expireSeconds;
+
+        /**
+         * 与Redis中的权限版本比较的最小间隔（毫秒），权限的撤销最迟在这个间隔后生效
+         */
+        private Long versionCheckMillis;
+
+    }
+
+    @Data
+    public static class SessionProp {
+
+        /**
+         * 会话的剩余时间不足失效时间的这个比例时才刷新lastAccessedTime，避免每个请求都写入Redis
+         */
+        private Double refreshFraction;
+
+    }
+
+    @Data
+    public static class SignedTokenProp {
+
+        /**
+         * 访问令牌的HMAC密钥（Base64，至少32字节），所有节点需要相同
+         */
+        private String secret;
+
+        /**
+         * 没有配置secret时阻止启动，而不是使用随机密钥（生产环境开启）
+         */
+        private Boolean requireSecret;
+
+        /**
+         * 访问令牌的有效秒数
+         */
+        private Long accessSeconds;
+
+        /**
+         * 刷新令牌的有效秒数
+         */
+        private Long refreshSeconds;
+
+        /**
+         * 被撤销令牌的布隆过滤器的预期容量
+         */
+        private Long revocationExpectedInsertions;
+
+        /**
+         * 被撤销令牌的布隆过滤器的误判率
+         */
+        private Double revocationFpp;
+
+        /**
+         * 按Redis重建布隆过滤器的间隔（毫秒）
+         */
+        private Long revocationSyncMillis;
+
+    }
+
+    @Data
+    public static class ClientIpProp {
+
+        /**
+         * 受信任的反向代理（IP或CIDR），只有来自这些地址的连接才会采信X-Forwarded-For
+         */
+        private List<String> trustedProxies;
+
     }
 
     @Data
@@ -0,0 +1,84 @@
+package com.spldeolin.beginningmind.core.aspect;
+
+import java.lang.reflect.Method;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+import com.spldeolin.beginningmind.core.aspect.annotation.ReadFrom;
+import com.spldeolin.beginningmind.core.datasource.DataSourceRole;
+import com.spldeolin.beginningmind.core.datasource.DataSourceRouting;
+
+/**
+ * 读写分离切面
+ * <pre>
+ * 声明了@ReadFrom的方法（或类）按声明选择数据源；
+ * CommonService实现类的其他public方法按命名约定：get、list、search、page、count、is、seek、stream、forEach开头的
+ * 方法使用从库，其余方法使用主库
+ * 优先级高于事务切面；物理连接在事务中执行第一条语句时才获取（LazyConnectionDataSourceProxy），
+ * 所以非只读事务中即使声明了从库也会使用主库
+ * </pre>
+ *
+ * @author Deolin 2026-10-18
+ */
+@Component
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "core.read-write-splitting", name = "enabled", havingValue = "true")
+public class DataSourceRoutingAspect {
+
+    private static final String[] READ_PREFIXES = {"get", "list", "search", "page", "count", "is", "seek", "stream",
+            "forEach"};
+
+    /**
+     * 包名以com.spldeolin.beginningmind.开头的，
+     *
+     * CommonService的实现类的方法，或是声明了@ReadFrom的方法或类
+     */
+    @Pointcut("execution(public * com.spldeolin.beginningmind..*.*(..))"
+            + "&& (target(com.spldeolin.beginningmind.core.common.CommonService)"
+            + "|| @annotation(com.spldeolin.beginningmind.core.aspect.annotation.ReadFrom)"
+            + "|| @within(com.spldeolin.beginningmind.core.aspect.annotation.ReadFrom))")
+    public void routed() {
+    }
+
+    @Around("routed()")
+    public Object around(ProceedingJoinPoint point) throws Throwable {
+        DataSourceRouting.push(roleOf(point));
+        try {
+            return point.proceed();
+        } finally {
+            DataSourceRouting.pop();
+        }
+    }
+
+    private DataSourceRole roleOf(ProceedingJoinPoint point) {
+        Method method = ((MethodSignature) point.getSignature()).getMethod();
+        Class<?> targetClass = point.getTarget().getClass();
+        Method specificMethod = ClassUtils.getMostSpecificMethod(method, targetClass);
+
+        ReadFrom readFrom = AnnotatedElementUtils.findMergedAnnotation(specificMethod, ReadFrom.class);
+        if (readFrom == null) {
+            readFrom = AnnotatedElementUtils.findMergedAnnotation(targetClass, ReadFrom.class);
+        }
+        if (readFrom != null) {
+            return readFrom.value();
+        }
+
+        for (String prefix : READ_PREFIXES) {
+            if (StringUtils.startsWithIgnoreCase(method.getName(), prefix)) {
+                return DataSourceRole.REPLICA;
+            }
+        }
+        return DataSourceRole.PRIMARY;
+    }
+
+}
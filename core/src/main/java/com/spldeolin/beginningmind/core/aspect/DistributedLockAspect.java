@@ -0,0 +1,88 @@
+package com.spldeolin.beginningmind.core.aspect;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+import com.spldeolin.beginningmind.core.aspect.annotation.DistributedLocked;
+import com.spldeolin.beginningmind.core.common.BizException;
+import com.spldeolin.beginningmind.core.redis.RedisReentrantLock;
+
+/**
+ * 分布式锁切面
+ *
+ * 优先级高于事务切面，保证事务提交之后才释放锁
+ *
+ * @author Deolin 2026-10-18
+ */
+@Component
+@Aspect
+@Order(0)
+public class DistributedLockAspect {
+
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser();
+
+    private static final ParameterNameDiscoverer PARAMETER_NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+
+    @Autowired
+    private RedisReentrantLock redisReentrantLock;
+
+    /**
+     * 解析过的key表达式
+     */
+    private final Map<Method, Expression> keyExpressions = new ConcurrentHashMap<>();
+
+    /**
+     * 包名以com.spldeolin.beginningmind.开头的，
+     *
+     * 声明了@DistributedLocked的方法
+     */
+    @Pointcut("execution(* com.spldeolin.beginningmind..*.*(..))"
+            + "&& @annotation(com.spldeolin.beginningmind.core.aspect.annotation.DistributedLocked)")
+    public void locked() {
+    }
+
+    @Around("locked()")
+    public Object around(ProceedingJoinPoint point) throws Throwable {
+        Method method = ((MethodSignature) point.getSignature()).getMethod();
+        DistributedLocked distributedLocked = method.getAnnotation(DistributedLocked.class);
+        String lockKey = evaluateKey(method, distributedLocked, point);
+
+        long fencingToken = redisReentrantLock
+                .tryLock(lockKey, distributedLocked.waitMillis(), TimeUnit.MILLISECONDS);
+        if (fencingToken == RedisReentrantLock.NOT_ACQUIRED) {
+            throw new BizException(distributedLocked.failMessage());
+        }
+        try {
+            return point.proceed();
+        } finally {
+            redisReentrantLock.unlock(lockKey);
+        }
+    }
+
+    private String evaluateKey(Method method, DistributedLocked distributedLocked, ProceedingJoinPoint point) {
+        Expression expression = keyExpressions
+                .computeIfAbsent(method, m -> PARSER.parseExpression(distributedLocked.key()));
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(point.getTarget(), method,
+                point.getArgs(), PARAMETER_NAME_DISCOVERER);
+        String key = expression.getValue(context, String.class);
+        if (key == null) {
+            throw new IllegalArgumentException("分布式锁的key为null " + distributedLocked.key());
+        }
+        return key;
+    }
+
+}
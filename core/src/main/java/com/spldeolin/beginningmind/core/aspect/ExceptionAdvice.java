@@ -22,6 +22,7 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 import com.spldeolin.beginningmind.core.aspect.dto.Invalid;
 import com.spldeolin.beginningmind.core.aspect.dto.RequestResult;
 import com.spldeolin.beginningmind.core.aspect.exception.ExtraInvalidException;
+import com.spldeolin.beginningmind.core.aspect.exception.TooManyRequestsException;
 import com.spldeolin.beginningmind.core.common.BizException;
 import com.spldeolin.beginningmind.core.constant.ResultCode;
 import com.spldeolin.beginningmind.core.filter.dto.RequestTrackDTO;
@@ -165,6 +166,14 @@ public class ExceptionAdvice {
         return RequestResult.failure(ResultCode.FORBIDDEN, e.getMessage());
     }
 
+    /**
+     * 429 请求过于频繁
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public RequestResult handle(TooManyRequestsException e) {
+        return RequestResult.failure(ResultCode.TOO_MANY_REQUESTS, e.getMessage());
+    }
+
     /**
      * 1001 业务异常
      */
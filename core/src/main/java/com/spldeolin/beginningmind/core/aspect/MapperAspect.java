@@ -1,11 +1,17 @@
 package com.spldeolin.beginningmind.core.aspect;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import com.spldeolin.beginningmind.core.datasource.MapperMetrics;
 import com.spldeolin.beginningmind.core.filter.dto.MappedCallDTO;
 import com.spldeolin.beginningmind.core.filter.dto.RequestTrackDTO;
 import com.spldeolin.beginningmind.core.util.WebContext;
@@ -13,8 +19,8 @@ import com.spldeolin.beginningmind.core.util.WebContext;
 /**
  * Mapper切面
  * <pre>
- * 前置：让请求的mapper调用次数自增1
- * 后置：无
+ * 环绕：以纳秒计时，记录到MapperMetrics的直方图中，
+ * 处于请求中时，再追加到请求的mapper调用记录
  * </pre>
  *
  * @author Deolin 2018/12/24
@@ -23,6 +29,19 @@ import com.spldeolin.beginningmind.core.util.WebContext;
 @Aspect
 public class MapperAspect {
 
+    /**
+     * Mapper代理类 -> (方法 -> “Mapper接口名.方法名”)
+     */
+    private static final ClassValue<Map<Method, String>> STATEMENT_NAMES = new ClassValue<Map<Method, String>>() {
+        @Override
+        protected Map<Method, String> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    @Autowired
+    private MapperMetrics mapperMetrics;
+
     /**
      * Spring可扫描的，BaseMapper的所有派生类
      */
@@ -32,22 +51,30 @@ public class MapperAspect {
 
     @Around("daoMapper()")
     public Object around(ProceedingJoinPoint point) throws Throwable {
-        Object[] parameterValues = point.getArgs();
-
-        long start = System.currentTimeMillis();
-        Object result = point.proceed(parameterValues);
-        long end = System.currentTimeMillis();
+        long start = System.nanoTime();
+        boolean error = true;
+        try {
+            Object result = point.proceed(point.getArgs());
+            error = false;
+            return result;
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            String statement = statementName(point);
+            mapperMetrics.record(statement, elapsedNanos, error);
 
-        String className = point.getTarget().getClass().getInterfaces()[0].getSimpleName();
-        String methodName = ((MethodSignature) point.getSignature()).getMethod().getName();
-        MappedCallDTO dto = new MappedCallDTO(className + "." + methodName, end - start);
-
-        RequestTrackDTO track = WebContext.getRequestTrack();
-        if (track != null) {
-            track.getMapperCalls().add(dto);
+            RequestTrackDTO track = WebContext.getRequestTrack();
+            if (track != null) {
+                MappedCallDTO dto = new MappedCallDTO(statement, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+                dto.setElapsedMicros(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+                track.getMapperCalls().add(dto);
+            }
         }
+    }
 
-        return result;
+    private String statementName(ProceedingJoinPoint point) {
+        Method method = ((MethodSignature) point.getSignature()).getMethod();
+        return STATEMENT_NAMES.get(point.getTarget().getClass()).computeIfAbsent(method,
+                key -> point.getTarget().getClass().getInterfaces()[0].getSimpleName() + "." + key.getName());
     }
 
 }
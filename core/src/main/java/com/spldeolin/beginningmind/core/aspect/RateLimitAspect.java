@@ -0,0 +1,116 @@
+package com.spldeolin.beginningmind.core.aspect;
+
+import java.lang.reflect.Method;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import com.spldeolin.beginningmind.core.CoreProperties;
+import com.spldeolin.beginningmind.core.CoreProperties.ClientIpProp;
+import com.spldeolin.beginningmind.core.aspect.annotation.ConcurrencyLimited;
+import com.spldeolin.beginningmind.core.aspect.annotation.RateLimited;
+import com.spldeolin.beginningmind.core.aspect.annotation.RateLimited.Algorithm;
+import com.spldeolin.beginningmind.core.aspect.annotation.RateLimited.LimitScope;
+import com.spldeolin.beginningmind.core.aspect.exception.TooManyRequestsException;
+import com.spldeolin.beginningmind.core.redis.RedisRateLimiter;
+import com.spldeolin.beginningmind.core.redis.RedisSemaphore;
+import com.spldeolin.beginningmind.core.util.Ips;
+import com.spldeolin.beginningmind.core.util.WebContext;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 限流切面，在请求方法执行前检查@RateLimited与@ConcurrencyLimited
+ *
+ * @author Deolin 2026-10-18
+ */
+@Component
+@Aspect
+@Log4j2
+public class RateLimitAspect {
+
+    private static final String RATE_LIMIT_NAMESPACE = "beginningMind:rateLimit:";
+
+    private static final String SEMAPHORE_NAMESPACE = "beginningMind:semaphore:";
+
+    @Autowired
+    private RedisRateLimiter redisRateLimiter;
+
+    @Autowired
+    private RedisSemaphore redisSemaphore;
+
+    @Autowired
+    private CoreProperties coreProperties;
+
+    /**
+     * 包名以com.spldeolin.beginningmind.开头的，
+     *
+     * 声明了@RestController的类，
+     *
+     * 中的声明了@RateLimited的方法
+     */
+    @Pointcut("execution(* com.spldeolin.beginningmind..*.*(..))"
+            + "&& @within(org.springframework.web.bind.annotation.RestController)"
+            + "&& @annotation(com.spldeolin.beginningmind.core.aspect.annotation.RateLimited)")
+    public void rateLimited() {
+    }
+
+    /**
+     * 同上，声明了@ConcurrencyLimited的方法
+     */
+    @Pointcut("execution(* com.spldeolin.beginningmind..*.*(..))"
+            + "&& @within(org.springframework.web.bind.annotation.RestController)"
+            + "&& @annotation(com.spldeolin.beginningmind.core.aspect.annotation.ConcurrencyLimited)")
+    public void concurrencyLimited() {
+    }
+
+    @Before("rateLimited()")
+    public void ensureRate(JoinPoint joinPoint) {
+        Method requestMethod = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        RateLimited rateLimited = requestMethod.getAnnotation(RateLimited.class);
+
+        String key = RATE_LIMIT_NAMESPACE + methodName(requestMethod);
+        if (rateLimited.scope() == LimitScope.IP) {
+            ClientIpProp props = coreProperties.getClientIp();
+            key += ":" + Ips.getClientIp(WebContext.getRequest(), props == null ? null : props.getTrustedProxies());
+        }
+
+        long wait;
+        if (rateLimited.algorithm() == Algorithm.TOKEN_BUCKET) {
+            wait = redisRateLimiter.acquireTokenBucket(key, rateLimited.limit(), rateLimited.periodMillis(), 1);
+        } else {
+            wait = redisRateLimiter.acquireSlidingWindow(key, rateLimited.limit(), rateLimited.periodMillis());
+        }
+        if (wait != RedisRateLimiter.PERMITTED) {
+            log.info("请求被限流 key={} wait={}ms", key, wait);
+            throw new TooManyRequestsException(rateLimited.message());
+        }
+    }
+
+    @Around("concurrencyLimited()")
+    public Object limitConcurrency(ProceedingJoinPoint point) throws Throwable {
+        Method requestMethod = ((MethodSignature) point.getSignature()).getMethod();
+        ConcurrencyLimited concurrencyLimited = requestMethod.getAnnotation(ConcurrencyLimited.class);
+
+        String key = SEMAPHORE_NAMESPACE + methodName(requestMethod);
+        String permitId = redisSemaphore
+                .tryAcquire(key, concurrencyLimited.permits(), concurrencyLimited.leaseMillis());
+        if (permitId == null) {
+            throw new TooManyRequestsException(concurrencyLimited.message());
+        }
+        try {
+            return point.proceed();
+        } finally {
+            redisSemaphore.release(key, permitId);
+        }
+    }
+
+    private String methodName(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+
+}
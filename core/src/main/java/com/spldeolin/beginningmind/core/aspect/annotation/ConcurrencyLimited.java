@@ -0,0 +1,31 @@
+package com.spldeolin.beginningmind.core.aspect.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 限制被声明的请求方法在整个集群中同时执行的个数，没有剩余许可时抛出TooManyRequestsException
+ *
+ * @author Deolin 2026-10-18
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConcurrencyLimited {
+
+    /**
+     * 允许同时执行的个数
+     */
+    int permits();
+
+    /**
+     * 许可的租期（毫秒），应大于方法的最长执行时间
+     */
+    long leaseMillis() default 10_000L;
+
+    String message() default "服务繁忙，请稍后再试";
+
+}
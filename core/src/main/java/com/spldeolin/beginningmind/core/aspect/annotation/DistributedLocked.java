@@ -0,0 +1,39 @@
+package com.spldeolin.beginningmind.core.aspect.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 在RedisReentrantLock的保护下执行被声明的方法，方法返回或抛出异常后释放锁
+ * <pre>
+ * e.g.:
+ * &#064;DistributedLocked(key = "'order:' + #orderId", waitMillis = 3000)
+ * public void pay(Long orderId) {...}
+ * </pre>
+ *
+ * @author Deolin 2026-10-18
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DistributedLocked {
+
+    /**
+     * 锁的key，SpEL表达式，可以用#参数名引用方法参数
+     */
+    String key();
+
+    /**
+     * 锁被占用时最多等待的毫秒数
+     */
+    long waitMillis() default 0L;
+
+    /**
+     * 未能获取锁时抛出的BizException的消息
+     */
+    String failMessage() default "操作正在进行中，请稍后再试";
+
+}
@@ -0,0 +1,51 @@
+package com.spldeolin.beginningmind.core.aspect.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 对被声明的请求方法限流，超过阈值时抛出TooManyRequestsException
+ *
+ * @author Deolin 2026-10-18
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimited {
+
+    Algorithm algorithm() default Algorithm.SLIDING_WINDOW;
+
+    /**
+     * 滑动窗口内允许的请求数，或令牌桶的容量
+     */
+    int limit();
+
+    /**
+     * 滑动窗口的长度，或令牌桶从空到满所需的毫秒数
+     */
+    long periodMillis();
+
+    LimitScope scope() default LimitScope.IP;
+
+    String message() default "请求过于频繁，请稍后再试";
+
+    enum Algorithm {
+        // 任意periodMillis内最多limit次，没有突发
+        SLIDING_WINDOW,
+
+        // 平均速率为limit/periodMillis，允许不超过limit的突发
+        TOKEN_BUCKET
+    }
+
+    enum LimitScope {
+        // 所有请求者共享同一个阈值
+        GLOBAL,
+
+        // 每个请求者IP各自计算阈值
+        IP
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.spldeolin.beginningmind.core.aspect.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import com.spldeolin.beginningmind.core.datasource.DataSourceRole;
+
+/**
+ * 声明方法内的读取使用的数据源角色，优先于CommonService的方法命名约定
+ * <pre>
+ * e.g.:
+ * &#064;ReadFrom(DataSourceRole.REPLICA)
+ * public List&lt;PermissionEntity&gt; listGrantedPermission(Long userId) {...}
+ *
+ * &#064;ReadFrom(DataSourceRole.PRIMARY) // 刚由其他服务写入，不能容忍复制延迟
+ * public Optional&lt;UserEntity&gt; get(Long id) {...}
+ * </pre>
+ *
+ * @author Deolin 2026-10-18
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFrom {
+
+    DataSourceRole value();
+
+}
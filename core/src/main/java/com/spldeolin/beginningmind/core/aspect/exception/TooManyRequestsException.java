@@ -0,0 +1,16 @@
+package com.spldeolin.beginningmind.core.aspect.exception;
+
+/**
+ * 请求超过了限流或并发阈值，由限流切面抛出
+ *
+ * @author Deolin 2026-10-18
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.spldeolin.beginningmind.core.common;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 合并短时间内的按ID查询（DataLoader）
+ * <pre>
+ * 第一个ID进入批次后开始计时，窗口结束或批次中的ID达到maxKeys时，
+ * 整个批次通过一次WHERE id IN (...)查询，再分别完成各自的CompletableFuture
+ * 同一批次内重复的ID共用一个CompletableFuture
+ *
+ * e.g.:
+ * CompletableFuture&lt;Optional&lt;UserEntity&gt;&gt; user = userService.getAsync(userId);
+ * </pre>
+ *
+ * @author Deolin 2026-10-18
+ */
+@Log4j2
+public class BatchLoader<E extends CommonEntity> {
+
+    /**
+     * 所有BatchLoader共用的计时线程，只负责把到期的批次交给dispatcher
+     */
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("batch-loader-timer").setDaemon(true).build());
+
+    private final Function<Collection<Long>, List<E>> loader;
+
+    /**
+     * 执行批量查询的线程池，拒绝执行时批次中的CompletableFuture全部异常完成
+     */
+    private final Executor dispatcher;
+
+    private final long windowMicros;
+
+    private final int maxKeys;
+
+    /**
+     * 正在收集的批次，只在synchronized中读写
+     */
+    private Map<Long, CompletableFuture<Optional<E>>> pending;
+
+    /**
+     * @param loader 批量查询，返回存在的实体，顺序不限
+     * @param windowMicros 收集窗口（微秒）
+     * @param maxKeys 批次中的ID达到这个数量时立即查询
+     * @param dispatcher 执行批量查询的线程池
+     */
+    public BatchLoader(Function<Collection<Long>, List<E>> loader, long windowMicros, int maxKeys,
+            Executor dispatcher) {
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("maxKeys应大于0");
+        }
+        this.loader = loader;
+        this.dispatcher = dispatcher;
+        this.windowMicros = windowMicros;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * 把一个ID加入当前批次
+     *
+     * @return 批次查询完成后完成，实体不存在时为Optional.empty()
+     */
+    public CompletableFuture<Optional<E>> load(Long id) {
+        if (id == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        Map<Long, CompletableFuture<Optional<E>>> full = null;
+        CompletableFuture<Optional<E>> future;
+        synchronized (this) {
+            if (pending == null) {
+                Map<Long, CompletableFuture<Optional<E>>> batch = Maps.newLinkedHashMap();
+                pending = batch;
+                TIMER.schedule(() -> flush(batch), windowMicros, TimeUnit.MICROSECONDS);
+            }
+            future = pending.computeIfAbsent(id, key -> new CompletableFuture<>());
+            if (pending.size() >= maxKeys) {
+                full = pending;
+                pending = null;
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return future;
+    }
+
+    /**
+     * 把多个ID加入当前批次
+     *
+     * @return 按ids的顺序排列的存在的实体
+     */
+    public CompletableFuture<List<E>> loadMany(Collection<Long> ids) {
+        List<CompletableFuture<Optional<E>>> futures = ids.stream().map(this::load).collect(Collectors.toList());
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(
+                nothing -> futures.stream().map(CompletableFuture::join).filter(Optional::isPresent)
+                        .map(Optional::get).collect(Collectors.toList()));
+    }
+
+    /**
+     * 窗口结束，批次已经因为达到maxKeys被查询时什么也不做
+     */
+    private void flush(Map<Long, CompletableFuture<Optional<E>>> batch) {
+        synchronized (this) {
+            if (pending != batch) {
+                return;
+            }
+            pending = null;
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Map<Long, CompletableFuture<Optional<E>>> batch) {
+        try {
+            dispatcher.execute(() -> complete(batch));
+        } catch (Exception e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private void complete(Map<Long, CompletableFuture<Optional<E>>> batch) {
+        try {
+            Map<Long, E> loaded = Maps.newHashMapWithExpectedSize(batch.size());
+            loader.apply(Lists.newArrayList(batch.keySet())).forEach(entity -> loaded.put(entity.getId(), entity));
+            batch.forEach((id, future) -> future.complete(Optional.ofNullable(loaded.get(id))));
+        } catch (Throwable e) {
+            log.error("批量查询失败 ids={}", batch.keySet(), e);
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.spldeolin.beginningmind.core.common;
+
+import java.io.Serializable;
+import java.util.List;
+import com.google.common.collect.Lists;
+import lombok.Data;
+
+/**
+ * 批量更新/upsert的结果
+ *
+ * @author Deolin 2026-10-18
+ */
+@Data
+public class BulkWriteResult implements Serializable {
+
+    /**
+     * 成功写入的实体个数
+     */
+    private Integer succeeded = 0;
+
+    /**
+     * 没有写入的实体的ID：实体不存在（update）、已被逻辑删除或是乐观锁冲突
+     */
+    private List<Long> conflictIds = Lists.newArrayList();
+
+    private static final long serialVersionUID = 1L;
+
+}
@@ -0,0 +1,42 @@
+package com.spldeolin.beginningmind.core.common;
+
+import java.util.List;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+
+/**
+ * 所有Mapper的父接口，在BaseMapper的基础上追加CommonSqlInjector注入的方法
+ *
+ * @author Deolin 2026-10-18
+ */
+public interface CommonMapper<E> extends BaseMapper<E> {
+
+    /**
+     * 以游标逐行读取满足条件的实体（MySQL流式结果集），需要在SqlSession关闭前读完
+     *
+     * @param queryWrapper 条件对象，为null时读取全部
+     * @return 游标
+     */
+    Cursor<E> selectCursor(@Param(Constants.WRAPPER) Wrapper<E> queryWrapper);
+
+    /**
+     * 以一条多行INSERT插入多个实体，ID需要预先分配
+     *
+     * @param entities 待插入实体，参数名固定为list，使通用字段补全对每个实体生效
+     * @return 插入的行数
+     */
+    int insertBatch(List<E> entities);
+
+    /**
+     * 以一条INSERT ... ON DUPLICATE KEY UPDATE插入或整行覆盖多个实体，ID需要预先分配
+     *
+     * @param entities 待写入实体
+     * @param checkVersion 是否只覆盖version与实体一致的行
+     * @return MySQL的affected rows，不能区分每一行的结果
+     */
+    int upsertBatch(@Param("list") List<E> entities, @Param("checkVersion") boolean checkVersion);
+
+}
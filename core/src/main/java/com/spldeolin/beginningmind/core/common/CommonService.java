@@ -3,11 +3,16 @@ package com.spldeolin.beginningmind.core.common;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import org.apache.ibatis.exceptions.TooManyResultsException;
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.spldeolin.beginningmind.core.input.KeysetPageInput;
 
 /**
  * @author Deolin
@@ -44,6 +49,22 @@ public interface CommonService<E extends CommonEntity> {
      */
     List<E> list(Collection<Long> ids);
 
+    /**
+     * 获取一个实体，与短时间内其他的getAsync合并为一次批量查询
+     *
+     * @param id 实体ID
+     * @return 批量查询完成后完成
+     */
+    CompletableFuture<Optional<E>> getAsync(Long id);
+
+    /**
+     * 获取多个实体，与短时间内其他的getAsync合并为一次批量查询
+     *
+     * @param ids 实体ID列表
+     * @return 按ids的顺序排列的存在的实体
+     */
+    CompletableFuture<List<E>> listAsync(Collection<Long> ids);
+
     /**
      * 获取全部实体
      *
@@ -51,6 +72,30 @@ public interface CommonService<E extends CommonEntity> {
      */
     List<E> listAll();
 
+    /**
+     * 以流式结果集逐行读取满足条件的实体，内存占用与结果集大小无关
+     * <pre>
+     * 返回的Stream持有数据库连接，必须关闭：
+     * try (Stream&lt;UserEntity&gt; users = userService.stream(null)) {
+     *     users.forEach(...);
+     * }
+     * 读完之前这个连接不能执行其他SQL，因此不要在与其他查询共用连接的事务中处理
+     * </pre>
+     *
+     * @param query 条件对象，为null时读取全部
+     * @return 实体流
+     */
+    Stream<E> stream(Wrapper<E> query);
+
+    /**
+     * 以流式结果集读取满足条件的实体，每凑满batchSize个交给consumer处理一次
+     *
+     * @param query 条件对象，为null时读取全部
+     * @param batchSize 每批的实体个数
+     * @param consumer 处理一批实体，不应保留对这个List的引用
+     */
+    void forEachBatch(Wrapper<E> query, int batchSize, Consumer<List<E>> consumer);
+
     /**
      * 更新一个实体，本方法不校验实体是否存在
      *
@@ -68,6 +113,31 @@ public interface CommonService<E extends CommonEntity> {
      */
     int update(E entity, Wrapper<E> query);
 
+    /**
+     * 更新多个实体，在一个批处理中逐个执行updateById
+     * <pre>
+     * 与update(E)相同：只更新不为null的属性，version不为null时进行乐观锁校验，不更新已被逻辑删除的实体
+     * 没有更新的实体记入结果的conflictIds而不是抛出异常，它们的version保持原值；更新成功的实体version已递增
+     * </pre>
+     *
+     * @param entities 待更新实体
+     * @return 成功个数与冲突的ID
+     */
+    BulkWriteResult update(Collection<E> entities);
+
+    /**
+     * 插入或覆盖多个实体（INSERT ... ON DUPLICATE KEY UPDATE）
+     * <pre>
+     * ID不存在时插入，ID为null时预先分配；ID已存在时整行覆盖（值为null的属性写入列默认值），插入时间除外
+     * version不为null的实体只覆盖version一致的行，version为null的实体不做乐观锁校验
+     * 已被逻辑删除的行不会被覆盖。没有写入的实体记入结果的conflictIds，成功的实体version更新为数据库中的值
+     * </pre>
+     *
+     * @param entities 待写入实体
+     * @return 成功个数与冲突的ID
+     */
+    BulkWriteResult upsert(Collection<E> entities);
+
     /**
      * 删除一个实体，本方法不校验实体是否存在
      *
@@ -166,4 +236,20 @@ public interface CommonService<E extends CommonEntity> {
      */
     IPage<E> page(Page page, Wrapper<E> query);
 
+    /**
+     * 键集分页（seek）
+     * <pre>
+     * 以上一页最后一个实体的(排序列, ID)为起点做索引范围扫描，耗时与页的深度无关；
+     * 总数只在input.withTotal时查询。排序列的值不能为null
+     * query中的条件会被复制后再追加起点条件与ORDER BY ... LIMIT，query本身不会被修改；query中不能含有排序、分组与last
+     * 排序列支持字符串、数字、Boolean与时间类型
+     * </pre>
+     *
+     * @param input 游标、每页个数与排序
+     * @param query 条件对象，为null时不附加条件
+     * @return 一页实体与下一页的游标
+     * @throws IllegalArgumentException query中含有ORDER BY、GROUP BY、HAVING或last
+     */
+    KeysetPage<E> seek(KeysetPageInput input, AbstractWrapper<E, ?, ?> query);
+
 }
\ No newline at end of file
@@ -1,21 +1,60 @@
 package com.spldeolin.beginningmind.core.common;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.ParameterizedType;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.annotation.PostConstruct;
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.exceptions.TooManyResultsException;
+import org.apache.ibatis.executor.BatchResult;
 import org.apache.ibatis.session.SqlSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.util.ReflectionUtils;
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.segments.MergeSegments;
 import com.baomidou.mybatisplus.core.enums.SqlMethod;
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.baomidou.mybatisplus.core.toolkit.ReflectionKit;
 import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
+import com.google.common.base.Strings;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.spldeolin.beginningmind.core.CoreProperties;
+import com.spldeolin.beginningmind.core.CoreProperties.BatchLoaderProp;
+import com.spldeolin.beginningmind.core.CoreProperties.MultiRowInsertProp;
+import com.spldeolin.beginningmind.core.common.annotation.EntityCached;
+import com.spldeolin.beginningmind.core.input.KeysetPageInput;
+import com.spldeolin.beginningmind.core.redis.RedisCache;
+import com.spldeolin.beginningmind.core.redis.RedisConnectionProvider;
+import com.spldeolin.beginningmind.core.service.SnowFlakeService;
 
 /**
  * @author Deolin
@@ -24,20 +63,84 @@ public abstract class CommonServiceImpl<E extends CommonEntity> implements Commo
 
     private static final Integer maxBatchSize = 1000;
 
+    /**
+     * Wrapper生成的参数占位符，e.g.: #{ew.paramNameValuePairs.MPGENVAL1}
+     */
+    private static final Pattern WRAPPER_PARAM_PATTERN = Pattern.compile(
+            "#\\{" + Constants.WRAPPER + "\\.paramNameValuePairs\\.(\\w+)[^}]*}");
+
+    @Autowired
+    private CommonMapper<E> baseMapper;
+
+    @Autowired
+    private SnowFlakeService snowFlakeService;
+
+    @Autowired
+    private CoreProperties coreProperties;
+
+    @Autowired
+    private RedisCache redisCache;
+
+    @Autowired
+    private RedisConnectionProvider redisConnectionProvider;
+
+    @Autowired
+    @Qualifier("taskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Autowired
+    @Qualifier("batchLoaderExecutor")
+    private ExecutorService batchLoaderExecutor;
+
     @Autowired
-    private BaseMapper<E> baseMapper;
+    private ApplicationContext applicationContext;
 
     private Class<E> entityClass;
 
+    /**
+     * 子类声明了@EntityCached时才存在
+     */
+    private EntityCacheSupport<E> entityCache;
+
+    private BatchLoader<E> batchLoader;
+
+    /**
+     * 经过Spring代理的自身，第一次批量查询时获取（@PostConstruct时代理尚未创建）
+     */
+    private volatile CommonService<E> self;
+
+    private InsertChunker<E> insertChunker;
+
     @SuppressWarnings("unchecked")
     public CommonServiceImpl() {
         ParameterizedType pt = (ParameterizedType) this.getClass().getGenericSuperclass();
         entityClass = (Class<E>) pt.getActualTypeArguments()[0];
     }
 
+    @PostConstruct
+    public void init() {
+        EntityCached entityCached = AnnotationUtils.findAnnotation(getClass(), EntityCached.class);
+        if (entityCached != null) {
+            entityCache = new EntityCacheSupport<>(entityClass, entityCached, redisCache, redisConnectionProvider,
+                    taskExecutor, baseMapper::selectBatchIds);
+        }
+
+        BatchLoaderProp props = coreProperties.getBatchLoader();
+        long windowMicros = props == null || props.getWindowMicros() == null ? 500L : props.getWindowMicros();
+        int maxKeys = props == null || props.getMaxKeys() == null ? maxBatchSize : props.getMaxKeys();
+        // 通过代理调用list，使批量查询同样经过读写分离切面
+        batchLoader = new BatchLoader<>(ids -> self().list(ids), windowMicros, maxKeys, batchLoaderExecutor);
+
+        MultiRowInsertProp insertProps = coreProperties.getMultiRowInsert();
+        int chunkSize = insertProps == null || insertProps.getChunkSize() == null ? maxBatchSize
+                : insertProps.getChunkSize();
+        insertChunker = new InsertChunker<>(entityClass, chunkSize);
+    }
+
     @Override
     public void create(E entity) {
         baseMapper.insert(entity);
+        evict(Collections.singleton(entity.getId()));
     }
 
     @Override
@@ -46,22 +149,21 @@ public abstract class CommonServiceImpl<E extends CommonEntity> implements Commo
             throw new IllegalArgumentException("entities长度不应为0");
         }
 
-        String sqlStatement = sqlStatement(SqlMethod.INSERT_ONE);
-        try (SqlSession batchSqlSession = sqlSessionBatch()) {
-            int i = 0;
-            for (E anEntityList : entities) {
-                batchSqlSession.insert(sqlStatement, anEntityList);
-                if (i >= 1 && i % maxBatchSize == 0) {
-                    batchSqlSession.flushStatements();
-                }
-                i++;
-            }
-            batchSqlSession.flushStatements();
+        // 一次性预先分配ID，避免逐条竞争雪花算法
+        assignIds(entities);
+
+        List<E> list = entities instanceof List ? (List<E>) entities : Lists.newArrayList(entities);
+        for (List<E> chunk : insertChunker.chunk(list)) {
+            baseMapper.insertBatch(chunk);
         }
+        evict(entities.stream().map(CommonEntity::getId).collect(Collectors.toList()));
     }
 
     @Override
     public Optional<E> get(Long id) {
+        if (entityCache != null) {
+            return entityCache.get(id);
+        }
         return Optional.ofNullable(baseMapper.selectById(id));
     }
 
@@ -71,23 +173,134 @@ public abstract class CommonServiceImpl<E extends CommonEntity> implements Commo
             throw new IllegalArgumentException("ids长度不应为0");
         }
 
+        if (entityCache != null) {
+            return entityCache.list(ids);
+        }
         return baseMapper.selectBatchIds(ids);
     }
 
+    @Override
+    public CompletableFuture<Optional<E>> getAsync(Long id) {
+        return batchLoader.load(id);
+    }
+
+    @Override
+    public CompletableFuture<List<E>> listAsync(Collection<Long> ids) {
+        return batchLoader.loadMany(ids);
+    }
+
     @Override
     public boolean update(E entity) {
         boolean updated = baseMapper.updateById(entity) != 0;
+        evict(Collections.singleton(entity.getId()));
         return updated;
     }
 
     @Override
     public int update(E entity, Wrapper<E> query) {
-        return baseMapper.update(entity, query);
+        int updated = baseMapper.update(entity, query);
+        if (entityCache != null && updated > 0) {
+            entityCache.evictAll();
+        }
+        return updated;
+    }
+
+    @Override
+    public BulkWriteResult update(Collection<E> entities) {
+        if (entities.size() == 0) {
+            throw new IllegalArgumentException("entities长度不应为0");
+        }
+
+        List<E> list = Lists.newArrayList(entities);
+        // 乐观锁插件会在执行前递增实体的version，冲突的实体需要恢复
+        List<Integer> originalVersions = list.stream().map(CommonEntity::getVersion).collect(Collectors.toList());
+        List<Integer> updateCounts = Lists.newArrayListWithCapacity(list.size());
+        String sqlStatement = sqlStatement(SqlMethod.UPDATE_BY_ID);
+        try (SqlSession batchSqlSession = sqlSessionBatch()) {
+            for (List<E> chunk : Lists.partition(list, maxBatchSize)) {
+                for (E entity : chunk) {
+                    MapperMethod.ParamMap<E> param = new MapperMethod.ParamMap<>();
+                    param.put(Constants.ENTITY, entity);
+                    batchSqlSession.update(sqlStatement, param);
+                }
+                for (BatchResult batchResult : batchSqlSession.flushStatements()) {
+                    for (int updateCount : batchResult.getUpdateCounts()) {
+                        updateCounts.add(updateCount);
+                    }
+                }
+            }
+        }
+
+        BulkWriteResult result = new BulkWriteResult();
+        for (int i = 0; i < list.size(); i++) {
+            E entity = list.get(i);
+            // 驱动改写批处理时返回SUCCESS_NO_INFO，无法判断，视为成功
+            if (updateCounts.get(i) == 0) {
+                entity.setVersion(originalVersions.get(i));
+                result.getConflictIds().add(entity.getId());
+            } else {
+                result.setSucceeded(result.getSucceeded() + 1);
+            }
+        }
+        evict(list.stream().map(CommonEntity::getId).collect(Collectors.toList()));
+        return result;
+    }
+
+    @Override
+    public BulkWriteResult upsert(Collection<E> entities) {
+        if (entities.size() == 0) {
+            throw new IllegalArgumentException("entities长度不应为0");
+        }
+
+        assignIds(entities);
+        List<E> list = Lists.newArrayList(entities);
+        List<Long> ids = list.stream().map(CommonEntity::getId).collect(Collectors.toList());
+        BulkWriteResult result = new BulkWriteResult();
+
+        // 写入前的version：已经可以确定冲突的实体不再写入，写入后据此判断每一行是否被覆盖
+        Map<Long, Integer> versionsBefore = selectVersions(ids);
+        List<E> checked = Lists.newArrayList();
+        List<E> unchecked = Lists.newArrayList();
+        for (E entity : list) {
+            Integer versionBefore = versionsBefore.get(entity.getId());
+            if (entity.getVersion() == null) {
+                unchecked.add(entity);
+            } else if (versionBefore == null || versionBefore.equals(entity.getVersion())) {
+                checked.add(entity);
+            } else {
+                result.getConflictIds().add(entity.getId());
+            }
+        }
+        for (List<E> chunk : insertChunker.chunk(checked)) {
+            baseMapper.upsertBatch(chunk, true);
+        }
+        for (List<E> chunk : insertChunker.chunk(unchecked)) {
+            baseMapper.upsertBatch(chunk, false);
+        }
+
+        Map<Long, Integer> versionsAfter = selectVersions(ids);
+        for (E entity : Iterables.concat(checked, unchecked)) {
+            Integer versionBefore = versionsBefore.get(entity.getId());
+            Integer versionAfter = versionsAfter.get(entity.getId());
+            // 新插入的行存在即可；已存在的行version应恰好递增一次，否则被并发写入抢先或是已被逻辑删除
+            boolean inserted = !versionsBefore.containsKey(entity.getId());
+            boolean written = versionsAfter.containsKey(entity.getId()) && (inserted
+                    || versionBefore != null && versionAfter != null && versionAfter == versionBefore + 1);
+            if (written) {
+                entity.setVersion(versionAfter);
+                result.setSucceeded(result.getSucceeded() + 1);
+            } else {
+                result.getConflictIds().add(entity.getId());
+            }
+        }
+        evict(ids);
+        return result;
     }
 
     @Override
     public boolean delete(Long id) {
         boolean deleted = baseMapper.deleteById(id) != 0;
+        evict(Collections.singleton(id));
         return deleted;
     }
 
@@ -97,6 +310,7 @@ public abstract class CommonServiceImpl<E extends CommonEntity> implements Commo
             throw new IllegalArgumentException("ids长度不应为0");
         }
         boolean deleted = baseMapper.deleteBatchIds(ids) != 0;
+        evict(ids);
         return deleted;
     }
 
@@ -120,8 +334,55 @@ public abstract class CommonServiceImpl<E extends CommonEntity> implements Commo
         return baseMapper.selectList(null);
     }
 
+    @Override
+    public Stream<E> stream(Wrapper<E> query) {
+        // 不经过Mapper代理：代理会在方法返回时关闭非事务的SqlSession，游标随之失效
+        SqlSession sqlSession = SqlHelper.sqlSession(entityClass);
+        Cursor<E> cursor;
+        try {
+            cursor = sqlSession.selectCursor(SqlHelper.table(entityClass).getSqlStatement("selectCursor"),
+                    Collections.singletonMap(Constants.WRAPPER, query));
+        } catch (RuntimeException e) {
+            SqlHelper.closeSqlSession(sqlSession, entityClass);
+            throw e;
+        }
+        return StreamSupport.stream(cursor.spliterator(), false).onClose(() -> {
+            try {
+                cursor.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                SqlHelper.closeSqlSession(sqlSession, entityClass);
+            }
+        });
+    }
+
+    @Override
+    public void forEachBatch(Wrapper<E> query, int batchSize, Consumer<List<E>> consumer) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize应大于0");
+        }
+        List<E> batch = Lists.newArrayListWithCapacity(batchSize);
+        try (Stream<E> entities = stream(query)) {
+            Iterator<E> iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == batchSize) {
+                    consumer.accept(batch);
+                    batch = Lists.newArrayListWithCapacity(batchSize);
+                }
+            }
+        }
+        if (batch.size() > 0) {
+            consumer.accept(batch);
+        }
+    }
+
     @Override
     public boolean isExist(Long id) {
+        if (entityCache != null) {
+            return entityCache.get(id).isPresent();
+        }
         return baseMapper.selectCount(new QueryWrapper<E>().eq("id", id)) > 0;
     }
 
@@ -141,6 +402,58 @@ public abstract class CommonServiceImpl<E extends CommonEntity> implements Commo
         return baseMapper.selectPage(page, queryWrapper);
     }
 
+    @Override
+    public KeysetPage<E> seek(KeysetPageInput input, AbstractWrapper<E, ?, ?> query) {
+        int size = input.getSize() == null ? 20 : input.getSize();
+        String sortColumn = input.getSort() == null || "id".equals(input.getSort()) ? null : input.getSort();
+        String sortProperty = sortColumn == null ? null : sortPropertyOf(sortColumn);
+        Class<?> sortType = sortProperty == null ? null
+                : ReflectionUtils.findField(entityClass, sortProperty).getType();
+        String comparator = Boolean.TRUE.equals(input.getDesc()) ? "<" : ">";
+        String direction = Boolean.TRUE.equals(input.getDesc()) ? "DESC" : "ASC";
+
+        KeysetPage<E> page = new KeysetPage<>();
+        if (Boolean.TRUE.equals(input.getWithTotal())) {
+            page.setTotal(baseMapper.selectCount(copyConditions(query)).longValue());
+        }
+
+        QueryWrapper<E> where = copyConditions(query);
+        if (input.getCursor() != null) {
+            KeysetCursor cursor = KeysetCursor.decode(input.getCursor());
+            if (sortColumn == null) {
+                where.apply("id " + comparator + " {0}", cursor.getLastId());
+            } else if (cursor.getLastSortValue() != null) {
+                Object lastSortValue = SortValueCodec.decode(cursor.getLastSortValue(), sortType);
+                where.apply("(" + sortColumn + " " + comparator + " {0} OR (" + sortColumn + " = {0} AND id "
+                        + comparator + " {1}))", lastSortValue, cursor.getLastId());
+            } else {
+                throw new BizException("分页游标与排序列不匹配");
+            }
+        }
+        String orderBy = sortColumn == null ? "" : sortColumn + " " + direction + ", ";
+        // 多取一个，用来判断是否存在下一页
+        where.last("ORDER BY " + orderBy + "id " + direction + " LIMIT " + (size + 1));
+
+        List<E> records = baseMapper.selectList(where);
+        boolean hasMore = records.size() > size;
+        if (hasMore) {
+            records = records.subList(0, size);
+            E last = records.get(size - 1);
+            String lastSortValue = null;
+            if (sortProperty != null) {
+                Object value = ReflectionKit.getMethodValue(entityClass, last, sortProperty);
+                if (value == null) {
+                    throw new BizException("排序列" + sortColumn + "的值不能为null");
+                }
+                lastSortValue = SortValueCodec.encode(value, sortType);
+            }
+            page.setNextCursor(new KeysetCursor(last.getId(), lastSortValue).encode());
+        }
+        page.setRecords(records);
+        page.setHasMore(hasMore);
+        return page;
+    }
+
     @Override
     public List<E> searchBatch(SFunction<E, ?> field, Object value) {
         LambdaQueryWrapper<E> query = new LambdaQueryWrapper<>();
@@ -157,6 +470,96 @@ public abstract class CommonServiceImpl<E extends CommonEntity> implements Commo
         return Optional.ofNullable(baseMapper.selectOne(query));
     }
 
+    /**
+     * 将query中的条件复制到一个新的QueryWrapper，seek追加的条件与ORDER BY ... LIMIT不会写回调用方的query
+     *
+     * @throws IllegalArgumentException query中含有ORDER BY、GROUP BY、HAVING或last
+     */
+    private QueryWrapper<E> copyConditions(AbstractWrapper<E, ?, ?> query) {
+        QueryWrapper<E> copy = new QueryWrapper<>();
+        if (query == null) {
+            return copy;
+        }
+        MergeSegments expression = query.getExpression();
+        if (expression.getOrderBy().size() > 0 || expression.getGroupBy().size() > 0
+                || expression.getHaving().size() > 0
+                || !Strings.nullToEmpty(query.getSqlSegment()).equals(expression.getSqlSegment())) {
+            throw new IllegalArgumentException("seek的query中不能含有ORDER BY、GROUP BY、HAVING或last");
+        }
+
+        copy.setEntity(query.getEntity());
+        String normal = expression.getNormal().getSqlSegment();
+        if (!normal.isEmpty()) {
+            // 将query的参数占位符改写为apply的{n}，参数值随之复制
+            List<Object> values = Lists.newArrayList();
+            StringBuffer sql = new StringBuffer();
+            Matcher matcher = WRAPPER_PARAM_PATTERN.matcher(normal);
+            while (matcher.find()) {
+                matcher.appendReplacement(sql, "{" + values.size() + "}");
+                values.add(query.getParamNameValuePairs().get(matcher.group(1)));
+            }
+            matcher.appendTail(sql);
+            copy.apply("(" + sql + ")", values.toArray());
+        }
+        return copy;
+    }
+
+    /**
+     * 校验排序列属于这个实体（列名会被拼接进SQL），并返回对应的属性名
+     */
+    private String sortPropertyOf(String sortColumn) {
+        TableInfo tableInfo = SqlHelper.table(entityClass);
+        for (TableFieldInfo field : tableInfo.getFieldList()) {
+            if (field.getColumn().equals(sortColumn)) {
+                return field.getProperty();
+            }
+        }
+        throw new BizException("不支持的排序列 " + sortColumn);
+    }
+
+    /**
+     * 未被逻辑删除的实体的ID -> version
+     */
+    private Map<Long, Integer> selectVersions(List<Long> ids) {
+        Map<Long, Integer> versions = Maps.newHashMapWithExpectedSize(ids.size());
+        for (List<Long> chunk : Lists.partition(ids, maxBatchSize)) {
+            QueryWrapper<E> query = new QueryWrapper<E>().select("id", "version").in("id", chunk);
+            baseMapper.selectList(query).forEach(entity -> versions.put(entity.getId(), entity.getVersion()));
+        }
+        return versions;
+    }
+
+    @SuppressWarnings("unchecked")
+    private CommonService<E> self() {
+        CommonService<E> proxy = self;
+        if (proxy == null) {
+            proxy = applicationContext.getBean(getClass());
+            self = proxy;
+        }
+        return proxy;
+    }
+
+    private void evict(Collection<Long> ids) {
+        if (entityCache != null) {
+            entityCache.evict(ids);
+        }
+    }
+
+    private void assignIds(Collection<E> entities) {
+        int absent = (int) entities.stream().filter(entity -> entity.getId() == null).count();
+        if (absent == 0) {
+            return;
+        }
+
+        long[] ids = snowFlakeService.nextIds(absent);
+        int i = 0;
+        for (E entity : entities) {
+            if (entity.getId() == null) {
+                entity.setId(ids[i++]);
+            }
+        }
+    }
+
     private Optional<E> batchToOne(Collection<E> entities) {
         if (entities.size() == 0) {
             return Optional.empty();
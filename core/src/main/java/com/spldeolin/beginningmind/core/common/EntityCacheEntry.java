@@ -0,0 +1,26 @@
+package com.spldeolin.beginningmind.core.common;
+
+import java.io.Serializable;
+import lombok.Data;
+
+/**
+ * 实体缓存中的一项
+ *
+ * @author Deolin 2026-10-18
+ */
+@Data
+public class EntityCacheEntry<E> implements Serializable {
+
+    /**
+     * 为null时代表该ID不存在（负缓存）
+     */
+    private E entity;
+
+    /**
+     * 在此时刻（epoch毫秒）之后需要刷新
+     */
+    private Long freshUntil;
+
+    private static final long serialVersionUID = 1L;
+
+}
@@ -0,0 +1,257 @@
+package com.spldeolin.beginningmind.core.common;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.spldeolin.beginningmind.core.common.annotation.EntityCached;
+import com.spldeolin.beginningmind.core.redis.RedisCache;
+import com.spldeolin.beginningmind.core.redis.RedisConnectionProvider;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * CommonServiceImpl的实体读穿缓存，由@EntityCached开启
+ *
+ * Redis不可用时直接查询数据库
+ *
+ * key中含有这个实体的缓存代数，失效全部缓存只需在Redis中自增代数，旧代数的缓存随TTL自然过期；
+ * 各节点每隔GENERATION_CHECK_MILLIS从Redis同步一次代数
+ *
+ * @author Deolin 2026-10-18
+ */
+@Log4j2
+class EntityCacheSupport<E extends CommonEntity> {
+
+    private static final String NAMESPACE = "beginningMind:entity:";
+
+    private static final String GENERATION_NAMESPACE = "beginningMind:entityGeneration:";
+
+    private static final long GENERATION_CHECK_MILLIS = 1000L;
+
+    private final String keyPrefix;
+
+    private final String generationKey;
+
+    private final EntityCached config;
+
+    private final RedisCache redisCache;
+
+    private final RedisConnectionProvider connectionProvider;
+
+    private final TaskExecutor taskExecutor;
+
+    private final Function<Collection<Long>, List<E>> loader;
+
+    /**
+     * 本节点正在异步刷新的ID，避免同一个ID被重复刷新
+     */
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+
+    private volatile long generation;
+
+    private volatile long generationCheckedAt;
+
+    EntityCacheSupport(Class<E> entityClass, EntityCached config, RedisCache redisCache,
+            RedisConnectionProvider connectionProvider, TaskExecutor taskExecutor,
+            Function<Collection<Long>, List<E>> loader) {
+        this.keyPrefix = NAMESPACE + entityClass.getSimpleName() + ":";
+        this.generationKey = GENERATION_NAMESPACE + entityClass.getSimpleName();
+        this.config = config;
+        this.redisCache = redisCache;
+        this.connectionProvider = connectionProvider;
+        this.taskExecutor = taskExecutor;
+        this.loader = loader;
+    }
+
+    Optional<E> get(Long id) {
+        long generation = currentGeneration();
+        EntityCacheEntry<E> entry;
+        try {
+            entry = redisCache.get(key(generation, id));
+        } catch (DataAccessException e) {
+            log.error("读取实体缓存失败，直接查询数据库 id={}", id, e);
+            return loader.apply(Lists.newArrayList(id)).stream().findFirst();
+        }
+
+        if (entry != null) {
+            if (isStale(entry)) {
+                refreshAsync(generation, Lists.newArrayList(id));
+            }
+            return Optional.ofNullable(entry.getEntity());
+        }
+        return Optional.ofNullable(loadAndCache(generation, Lists.newArrayList(id)).get(id));
+    }
+
+    /**
+     * @return 按ids的顺序排列的存在的实体
+     */
+    List<E> list(Collection<Long> ids) {
+        List<Long> distinctIds = Lists.newArrayList(Sets.newLinkedHashSet(ids));
+        long generation = currentGeneration();
+        List<EntityCacheEntry<E>> entries;
+        try {
+            entries = redisCache.multiGet(
+                    distinctIds.stream().map(id -> key(generation, id)).collect(Collectors.toList()));
+        } catch (DataAccessException e) {
+            log.error("读取实体缓存失败，直接查询数据库 ids={}", distinctIds, e);
+            return loader.apply(distinctIds);
+        }
+
+        Map<Long, E> found = Maps.newHashMap();
+        List<Long> missIds = Lists.newArrayList();
+        List<Long> staleIds = Lists.newArrayList();
+        for (int i = 0; i < distinctIds.size(); i++) {
+            Long id = distinctIds.get(i);
+            EntityCacheEntry<E> entry = entries.get(i);
+            if (entry == null) {
+                missIds.add(id);
+                continue;
+            }
+            if (isStale(entry)) {
+                staleIds.add(id);
+            }
+            if (entry.getEntity() != null) {
+                found.put(id, entry.getEntity());
+            }
+        }
+        if (staleIds.size() > 0) {
+            refreshAsync(generation, staleIds);
+        }
+        if (missIds.size() > 0) {
+            found.putAll(loadAndCache(generation, missIds));
+        }
+
+        List<E> result = Lists.newArrayListWithCapacity(found.size());
+        for (Long id : distinctIds) {
+            E entity = found.get(id);
+            if (entity != null) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 立即失效，处于事务中时在事务结束（提交或回滚）后再失效一次，避免事务结束前被其他线程以旧值回填
+     */
+    void evict(Collection<Long> ids) {
+        List<Long> nonNullIds = ids.stream().filter(id -> id != null).collect(Collectors.toList());
+        if (nonNullIds.size() > 0) {
+            evictNowAndAfterCompletion(() -> {
+                long generation = currentGeneration();
+                redisCache.delete(nonNullIds.stream().map(id -> key(generation, id)).collect(Collectors.toList()));
+            });
+        }
+    }
+
+    /**
+     * 失效这个实体的所有缓存（无法确定被影响的ID时），自增缓存代数
+     */
+    void evictAll() {
+        evictNowAndAfterCompletion(() -> {
+            generation = connectionProvider.sync().incr(generationKey);
+            generationCheckedAt = System.currentTimeMillis();
+        });
+    }
+
+    /**
+     * 距离上一次同步超过GENERATION_CHECK_MILLIS时，从Redis同步缓存代数
+     */
+    private long currentGeneration() {
+        long now = System.currentTimeMillis();
+        if (now - generationCheckedAt < GENERATION_CHECK_MILLIS) {
+            return generation;
+        }
+        try {
+            String value = connectionProvider.sync().get(generationKey);
+            generation = value == null ? 0L : Long.parseLong(value);
+        } catch (Exception e) {
+            log.error("获取实体缓存代数失败，沿用本地代数 key={}", generationKey, e);
+        }
+        generationCheckedAt = now;
+        return generation;
+    }
+
+    private Map<Long, E> loadAndCache(long generation, List<Long> ids) {
+        Map<Long, E> loaded = Maps.newHashMap();
+        loader.apply(ids).forEach(entity -> loaded.put(entity.getId(), entity));
+
+        try {
+            redisCache.pipeline(batch -> ids.forEach(id -> {
+                E entity = loaded.get(id);
+                long ttl = entity == null ? config.negativeSeconds() : config.staleSeconds();
+                batch.set(key(generation, id), newEntry(entity), ttl, TimeUnit.SECONDS);
+            }));
+        } catch (DataAccessException e) {
+            log.error("写入实体缓存失败 ids={}", ids, e);
+        }
+        return loaded;
+    }
+
+    private void refreshAsync(long generation, List<Long> ids) {
+        List<Long> mine = ids.stream().filter(refreshing::add).collect(Collectors.toList());
+        if (mine.isEmpty()) {
+            return;
+        }
+        taskExecutor.execute(() -> {
+            try {
+                Map<Long, E> loaded = Maps.newHashMap();
+                loader.apply(mine).forEach(entity -> loaded.put(entity.getId(), entity));
+                for (Long id : mine) {
+                    E entity = loaded.get(id);
+                    long ttl = entity == null ? config.negativeSeconds() : config.staleSeconds();
+                    // 只覆盖仍然存在的缓存，刷新期间被失效的不回填
+                    redisCache.setIfPresent(key(generation, id), newEntry(entity), ttl, TimeUnit.SECONDS);
+                }
+            } catch (Exception e) {
+                log.error("异步刷新实体缓存失败 ids={}", mine, e);
+            } finally {
+                refreshing.removeAll(mine);
+            }
+        });
+    }
+
+    private EntityCacheEntry<E> newEntry(E entity) {
+        long freshSeconds = entity == null ? config.negativeSeconds() : config.freshSeconds();
+        EntityCacheEntry<E> entry = new EntityCacheEntry<>();
+        entry.setEntity(entity);
+        entry.setFreshUntil(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(freshSeconds));
+        return entry;
+    }
+
+    private boolean isStale(EntityCacheEntry<E> entry) {
+        return entry.getFreshUntil() == null || System.currentTimeMillis() > entry.getFreshUntil();
+    }
+
+    /**
+     * 回滚同样需要再失效一次：事务中的读取可能已经把未提交的值回填进缓存
+     */
+    private void evictNowAndAfterCompletion(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private String key(long generation, Long id) {
+        return keyPrefix + generation + ":" + id;
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.spldeolin.beginningmind.core.common;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import org.apache.ibatis.session.SqlSession;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.toolkit.ReflectionKit;
+import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
+import com.google.common.collect.Lists;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 把待插入的实体切分为多行INSERT的批次
+ *
+ * 每批的行数不超过chunkSize，并且按抽样估算的行大小，使一条INSERT不超过max_allowed_packet的一半
+ *
+ * @author Deolin 2026-10-18
+ */
+@Log4j2
+class InsertChunker<E extends CommonEntity> {
+
+    /**
+     * 查询失败时假定的max_allowed_packet（MySQL 5.7的默认值4MB）
+     */
+    private static final long DEFAULT_MAX_ALLOWED_PACKET = 4L * 1024 * 1024;
+
+    /**
+     * 估算行大小时抽样的行数
+     */
+    private static final int SAMPLES = 16;
+
+    /**
+     * 每个值在SQL中的额外开销：引号、转义余量、逗号
+     */
+    private static final int VALUE_OVERHEAD = 8;
+
+    /**
+     * 所有表共用一个数据源，只查询一次
+     */
+    private static volatile long maxAllowedPacket;
+
+    private final Class<E> entityClass;
+
+    private final int chunkSize;
+
+    InsertChunker(Class<E> entityClass, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize应大于0");
+        }
+        this.entityClass = entityClass;
+        this.chunkSize = chunkSize;
+    }
+
+    List<List<E>> chunk(List<E> entities) {
+        long budget = maxAllowedPacket() / 2;
+        long rowBytes = estimateRowBytes(entities);
+        int rows = (int) Math.max(1, Math.min(chunkSize, budget / rowBytes));
+        return Lists.partition(entities, rows);
+    }
+
+    /**
+     * 抽样行中最大的行
+     */
+    private long estimateRowBytes(List<E> entities) {
+        TableInfo tableInfo = SqlHelper.table(entityClass);
+        List<TableFieldInfo> fields = tableInfo.getFieldList();
+        long max = 1;
+        int step = Math.max(1, entities.size() / SAMPLES);
+        for (int i = 0; i < entities.size(); i += step) {
+            E entity = entities.get(i);
+            long bytes = 20 + VALUE_OVERHEAD;
+            for (TableFieldInfo field : fields) {
+                Object value = ReflectionKit.getMethodValue(entityClass, entity, field.getProperty());
+                // 按UTF-8中文最多3字节计
+                bytes += (value == null ? 7 : value.toString().length() * 3L) + VALUE_OVERHEAD;
+            }
+            max = Math.max(max, bytes);
+        }
+        return max;
+    }
+
+    private long maxAllowedPacket() {
+        if (maxAllowedPacket == 0) {
+            maxAllowedPacket = queryMaxAllowedPacket();
+        }
+        return maxAllowedPacket;
+    }
+
+    private long queryMaxAllowedPacket() {
+        SqlSession sqlSession = SqlHelper.sqlSession(entityClass);
+        try {
+            Connection connection = sqlSession.getConnection();
+            try (Statement statement = connection.createStatement();
+                    ResultSet resultSet = statement.executeQuery("SELECT @@max_allowed_packet")) {
+                if (resultSet.next()) {
+                    long result = resultSet.getLong(1);
+                    log.info("max_allowed_packet={}", result);
+                    return result;
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("查询max_allowed_packet失败，假定为{}", DEFAULT_MAX_ALLOWED_PACKET, e);
+        } finally {
+            SqlHelper.closeSqlSession(sqlSession, entityClass);
+        }
+        return DEFAULT_MAX_ALLOWED_PACKET;
+    }
+
+}
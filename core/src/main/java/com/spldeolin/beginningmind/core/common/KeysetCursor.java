@@ -0,0 +1,47 @@
+package com.spldeolin.beginningmind.core.common;
+
+import java.nio.charset.StandardCharsets;
+import com.google.common.io.BaseEncoding;
+import lombok.Data;
+
+/**
+ * 键集分页的游标：上一页最后一个实体的ID与排序列的值
+ *
+ * 对调用方不透明，编码为URL安全的Base64
+ *
+ * @author Deolin 2026-10-18
+ */
+@Data
+class KeysetCursor {
+
+    private static final BaseEncoding ENCODING = BaseEncoding.base64Url().omitPadding();
+
+    private static final char SEPARATOR = '|';
+
+    private final Long lastId;
+
+    /**
+     * 按ID排序时为null
+     */
+    private final String lastSortValue;
+
+    String encode() {
+        String plain = lastSortValue == null ? String.valueOf(lastId) : lastId + String.valueOf(SEPARATOR)
+                + lastSortValue;
+        return ENCODING.encode(plain.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetCursor decode(String cursor) {
+        try {
+            String plain = new String(ENCODING.decode(cursor), StandardCharsets.UTF_8);
+            int separator = plain.indexOf(SEPARATOR);
+            if (separator == -1) {
+                return new KeysetCursor(Long.valueOf(plain), null);
+            }
+            return new KeysetCursor(Long.valueOf(plain.substring(0, separator)), plain.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new BizException("分页游标无效");
+        }
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.spldeolin.beginningmind.core.common;
+
+import java.io.Serializable;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * 键集分页（seek）的一页
+ *
+ * @author Deolin 2026-10-18
+ */
+@Data
+public class KeysetPage<E> implements Serializable {
+
+    /**
+     * 本页的实体
+     */
+    private List<E> records;
+
+    /**
+     * 获取下一页时传入的游标，没有下一页时为null
+     */
+    private String nextCursor;
+
+    /**
+     * 是否存在下一页
+     */
+    private Boolean hasMore;
+
+    /**
+     * 满足条件的实体总数，只有请求了总数时才有值
+     */
+    private Long total;
+
+    private static final long serialVersionUID = 1L;
+
+}
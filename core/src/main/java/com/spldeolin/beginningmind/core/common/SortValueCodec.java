@@ -0,0 +1,101 @@
+package com.spldeolin.beginningmind.core.common;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.Map;
+import java.util.function.Function;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Primitives;
+
+/**
+ * 键集分页游标中排序列的值的编解码，按实体属性的类型选用
+ * <pre>
+ * 解码得到与属性同类型的对象，作为参数绑定到SQL，而不是以字符串与列比较
+ * Boolean编码为1/0；时间类型以完整的精度编码（不省略为0的秒）
+ * </pre>
+ *
+ * @author Deolin 2026-10-18
+ */
+final class SortValueCodec {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSSSSS");
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSSSSSSSS");
+
+    private static final Map<Class<?>, Function<Object, String>> ENCODERS = ImmutableMap
+            .<Class<?>, Function<Object, String>>builder()
+            .put(String.class, value -> (String) value)
+            .put(Boolean.class, value -> (Boolean) value ? "1" : "0")
+            .put(Byte.class, Object::toString)
+            .put(Short.class, Object::toString)
+            .put(Integer.class, Object::toString)
+            .put(Long.class, Object::toString)
+            .put(BigDecimal.class, value -> ((BigDecimal) value).toPlainString())
+            .put(LocalDateTime.class, value -> DATE_TIME.format((LocalDateTime) value))
+            .put(LocalDate.class, value -> DateTimeFormatter.ISO_LOCAL_DATE.format((LocalDate) value))
+            .put(LocalTime.class, value -> TIME.format((LocalTime) value))
+            .put(Date.class, value -> String.valueOf(((Date) value).getTime()))
+            .build();
+
+    private static final Map<Class<?>, Function<String, Object>> DECODERS = ImmutableMap
+            .<Class<?>, Function<String, Object>>builder()
+            .put(String.class, text -> text)
+            .put(Boolean.class, SortValueCodec::decodeBoolean)
+            .put(Byte.class, Byte::valueOf)
+            .put(Short.class, Short::valueOf)
+            .put(Integer.class, Integer::valueOf)
+            .put(Long.class, Long::valueOf)
+            .put(BigDecimal.class, BigDecimal::new)
+            .put(LocalDateTime.class, text -> LocalDateTime.parse(text, DATE_TIME))
+            .put(LocalDate.class, text -> LocalDate.parse(text, DateTimeFormatter.ISO_LOCAL_DATE))
+            .put(LocalTime.class, text -> LocalTime.parse(text, TIME))
+            .put(Date.class, text -> new Date(Long.parseLong(text)))
+            .build();
+
+    private SortValueCodec() {
+    }
+
+    /**
+     * @param type 排序列对应的属性的类型
+     * @throws BizException 不支持这个类型的排序列
+     */
+    static String encode(Object value, Class<?> type) {
+        Function<Object, String> encoder = ENCODERS.get(Primitives.wrap(type));
+        if (encoder == null) {
+            throw new BizException("不支持的排序列类型 " + type.getSimpleName());
+        }
+        return encoder.apply(value);
+    }
+
+    /**
+     * @param type 排序列对应的属性的类型
+     * @throws BizException 不支持这个类型的排序列，或是游标中的值无法解析
+     */
+    static Object decode(String text, Class<?> type) {
+        Function<String, Object> decoder = DECODERS.get(Primitives.wrap(type));
+        if (decoder == null) {
+            throw new BizException("不支持的排序列类型 " + type.getSimpleName());
+        }
+        try {
+            return decoder.apply(text);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new BizException("分页游标无效");
+        }
+    }
+
+    private static Boolean decodeBoolean(String text) {
+        if ("1".equals(text)) {
+            return true;
+        }
+        if ("0".equals(text)) {
+            return false;
+        }
+        throw new NumberFormatException(text);
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.spldeolin.beginningmind.core.common.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明在CommonServiceImpl的子类上，为get(id)、list(ids)、isExist(id)开启Redis读穿缓存
+ * <pre>
+ * freshSeconds内直接返回缓存
+ * 之后到staleSeconds为止仍返回缓存（旧值），同时在AsyncConfig的线程池中异步刷新
+ * 不存在的ID缓存negativeSeconds，避免反复查询数据库
+ * 通过同一个Service的create、update、delete写入时自动失效（事务结束后再失效一次）
+ * 按条件update时无法确定受影响的ID，失效这个实体的全部缓存，其他节点最迟在1秒后生效
+ * 绕过Service直接通过Mapper写入的数据，最多在freshSeconds后被刷新
+ * </pre>
+ *
+ * @author Deolin 2026-10-18
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface EntityCached {
+
+    long freshSeconds() default 60L;
+
+    long staleSeconds() default 600L;
+
+    long negativeSeconds() default 30L;
+
+}
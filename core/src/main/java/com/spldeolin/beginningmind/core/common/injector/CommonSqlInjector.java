@@ -0,0 +1,24 @@
+package com.spldeolin.beginningmind.core.common.injector;
+
+import java.util.List;
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.extension.injector.LogicSqlInjector;
+import com.google.common.collect.Lists;
+
+/**
+ * 在逻辑删除的通用方法之外，为CommonMapper注入追加的方法
+ *
+ * @author Deolin 2026-10-18
+ */
+public class CommonSqlInjector extends LogicSqlInjector {
+
+    @Override
+    public List<AbstractMethod> getMethodList() {
+        List<AbstractMethod> methods = Lists.newArrayList(super.getMethodList());
+        methods.add(new SelectCursor());
+        methods.add(new InsertBatch());
+        methods.add(new UpsertBatch());
+        return methods;
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.spldeolin.beginningmind.core.common.injector;
+
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+import com.baomidou.mybatisplus.core.injector.AbstractMethod;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+
+/**
+ * CommonMapper.insertBatch
+ * <pre>
+ * 一条INSERT INTO table (id, ...) VALUES (...), (...), ...
+ * 与insert一样，值为null的列使用列的默认值（VALUES中的DEFAULT），而不是写入NULL
+ * ID需要预先分配
+ * </pre>
+ *
+ * @author Deolin 2026-10-18
+ */
+public class InsertBatch extends AbstractMethod {
+
+    private static final String METHOD = "insertBatch";
+
+    private static final String ITEM = "et";
+
+    @Override
+    public MappedStatement injectMappedStatement(Class<?> mapperClass, Class<?> modelClass, TableInfo tableInfo) {
+        String sql = "<script>" + insertSql(tableInfo) + "</script>";
+        SqlSource sqlSource = languageDriver.createSqlSource(configuration, sql, modelClass);
+        return addInsertMappedStatement(mapperClass, modelClass, METHOD, sqlSource, new NoKeyGenerator(), null,
+                null);
+    }
+
+    /**
+     * INSERT INTO table (...) VALUES (...), (...)，实体的集合参数名为list
+     */
+    protected String insertSql(TableInfo tableInfo) {
+        StringBuilder columns = new StringBuilder(tableInfo.getKeyColumn());
+        StringBuilder values = new StringBuilder("#{").append(ITEM).append(DOT).append(tableInfo.getKeyProperty())
+                .append("}");
+        for (TableFieldInfo field : tableInfo.getFieldList()) {
+            columns.append(COMMA).append(field.getColumn());
+            values.append(COMMA).append("<choose><when test=\"").append(ITEM).append(DOT).append(field.getProperty())
+                    .append(" != null\">#{").append(ITEM).append(DOT).append(field.getEl())
+                    .append("}</when><otherwise>DEFAULT</otherwise></choose>");
+        }
+
+        return "INSERT INTO " + tableInfo.getTableName() + " (" + columns + ") VALUES "
+                + "<foreach collection=\"list\" item=\"" + ITEM + "\" separator=\",\">(" + values + ")</foreach>";
+    }
+
+}
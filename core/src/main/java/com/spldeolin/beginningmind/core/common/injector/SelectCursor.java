@@ -0,0 +1,40 @@
+package com.spldeolin.beginningmind.core.common.injector;
+
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.mapping.StatementType;
+import com.baomidou.mybatisplus.core.enums.SqlMethod;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.extension.injector.AbstractLogicMethod;
+
+/**
+ * CommonMapper.selectCursor
+ *
+ * SQL与selectList相同（过滤逻辑删除），语句声明为只进结果集且fetchSize=Integer.MIN_VALUE，
+ * MySQL驱动因此逐行返回结果，而不是把整个结果集读入内存
+ *
+ * @author Deolin 2026-10-18
+ */
+public class SelectCursor extends AbstractLogicMethod {
+
+    private static final String METHOD = "selectCursor";
+
+    @Override
+    public MappedStatement injectMappedStatement(Class<?> mapperClass, Class<?> modelClass, TableInfo tableInfo) {
+        SqlMethod sqlMethod = SqlMethod.LOGIC_SELECT_LIST;
+        String sql = String.format(sqlMethod.getSql(), sqlSelectColumns(tableInfo, true), tableInfo.getTableName(),
+                sqlWhereEntityWrapper(tableInfo));
+        SqlSource sqlSource = languageDriver.createSqlSource(configuration, sql, modelClass);
+
+        if (configuration.hasStatement(mapperClass.getName() + "." + METHOD, false)) {
+            return null;
+        }
+        return builderAssistant.addMappedStatement(METHOD, sqlSource, StatementType.PREPARED, SqlCommandType.SELECT,
+                Integer.MIN_VALUE, null, null, null, null, modelClass, ResultSetType.FORWARD_ONLY, false, false,
+                false, new NoKeyGenerator(), null, null, configuration.getDatabaseId(), languageDriver, null);
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.spldeolin.beginningmind.core.common.injector;
+
+import org.apache.ibatis.executor.keygen.NoKeyGenerator;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+
+/**
+ * CommonMapper.upsertBatch
+ * <pre>
+ * INSERT INTO table (...) VALUES (...), (...) ON DUPLICATE KEY UPDATE col = IF(guard, VALUES(col), col), ...
+ * guard：已存在的行未被逻辑删除，并且checkVersion时version与实体的version一致；
+ * guard不成立的行保持原样。version在最后赋值，之前的IF看到的都是原来的version
+ * 不覆盖插入时间与逻辑删除列
+ * </pre>
+ *
+ * @author Deolin 2026-10-18
+ */
+public class UpsertBatch extends InsertBatch {
+
+    private static final String METHOD = "upsertBatch";
+
+    private static final String VERSION_PROPERTY = "version";
+
+    private static final String INSERTED_AT_PROPERTY = "insertedAt";
+
+    @Override
+    public MappedStatement injectMappedStatement(Class<?> mapperClass, Class<?> modelClass, TableInfo tableInfo) {
+        String versionColumn = null;
+        StringBuilder guard = new StringBuilder("(1 = 1");
+        for (TableFieldInfo field : tableInfo.getFieldList()) {
+            if (field.isLogicDelete()) {
+                guard.append(" AND ").append(field.getColumn()).append(" = ").append(field.getLogicNotDeleteValue());
+            } else if (VERSION_PROPERTY.equals(field.getProperty())) {
+                versionColumn = field.getColumn();
+                guard.append("<if test=\"checkVersion\"> AND ").append(versionColumn).append(" = VALUES(")
+                        .append(versionColumn).append(")</if>");
+            }
+        }
+        guard.append(")");
+
+        StringBuilder updates = new StringBuilder();
+        for (TableFieldInfo field : tableInfo.getFieldList()) {
+            if (field.isLogicDelete() || field.getColumn().equals(versionColumn)
+                    || INSERTED_AT_PROPERTY.equals(field.getProperty())) {
+                continue;
+            }
+            String column = field.getColumn();
+            updates.append(column).append(" = IF(").append(guard).append(", VALUES(").append(column).append("), ")
+                    .append(column).append(")").append(COMMA);
+        }
+        if (versionColumn != null) {
+            updates.append(versionColumn).append(" = IF(").append(guard).append(", ").append(versionColumn)
+                    .append(" + 1, ").append(versionColumn).append(")").append(COMMA);
+        }
+        updates.append(tableInfo.getKeyColumn()).append(" = ").append(tableInfo.getKeyColumn());
+
+        String sql = "<script>" + insertSql(tableInfo) + " ON DUPLICATE KEY UPDATE " + updates + "</script>";
+        SqlSource sqlSource = languageDriver.createSqlSource(configuration, sql, modelClass);
+        return addInsertMappedStatement(mapperClass, modelClass, METHOD, sqlSource, new NoKeyGenerator(), null,
+                null);
+    }
+
+}
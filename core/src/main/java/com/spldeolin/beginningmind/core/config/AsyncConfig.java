@@ -1,13 +1,18 @@
 package com.spldeolin.beginningmind.core.config;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.spldeolin.beginningmind.core.CoreProperties;
+import com.spldeolin.beginningmind.core.CoreProperties.BatchLoaderProp;
 import com.spldeolin.beginningmind.core.CoreProperties.TaskExecutorProp;
 
 /**
@@ -35,4 +40,17 @@ public class AsyncConfig {
         return executor;
     }
 
+    /**
+     * BatchLoader执行批量查询的线程池，不使用taskExecutor，避免@Async方法中等待getAsync时与批量查询争抢同一个线程池
+     */
+    @Bean
+    public ExecutorService batchLoaderExecutor() {
+        BatchLoaderProp props = coreProperties.getBatchLoader();
+        int threads = props == null || props.getThreads() == null ? 4 : props.getThreads();
+        int queueCapacity = props == null || props.getQueueCapacity() == null ? 1000 : props.getQueueCapacity();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                new ThreadFactoryBuilder().setNameFormat("batch-loader-%d").setDaemon(true).build());
+    }
+
 }
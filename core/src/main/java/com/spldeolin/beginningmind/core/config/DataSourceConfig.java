@@ -0,0 +1,102 @@
+package com.spldeolin.beginningmind.core.config;
+
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import com.google.common.collect.Maps;
+import com.spldeolin.beginningmind.core.CoreProperties;
+import com.spldeolin.beginningmind.core.CoreProperties.ReadWriteSplittingProp;
+import com.spldeolin.beginningmind.core.CoreProperties.ReadWriteSplittingProp.ReplicaProp;
+import com.spldeolin.beginningmind.core.datasource.ReplicaLagMonitor;
+import com.spldeolin.beginningmind.core.datasource.ReplicaRoutingDataSource;
+import com.spldeolin.beginningmind.core.datasource.WriteTrackingInterceptor;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * 读写分离
+ *
+ * core.read-write-splitting.enabled为true时，以spring.datasource为主库、core.read-write-splitting.replicas为从库，
+ * 替换SpringBoot自动配置的单一连接池；每个连接池都沿用spring.datasource.hikari的规格
+ *
+ * 路由数据源外包一层LazyConnectionDataSourceProxy，事务开始时不取物理连接，
+ * 直到执行第一条语句（此时事务已经生效）才由ReplicaRoutingDataSource选择数据源
+ *
+ * @author Deolin 2026-10-18
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "core.read-write-splitting", name = "enabled", havingValue = "true")
+public class DataSourceConfig {
+
+    @Autowired
+    private CoreProperties coreProperties;
+
+    @Autowired
+    private Environment environment;
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource primary = newPool("primary", dataSourceProperties.determineDriverClassName(),
+                dataSourceProperties.determineUrl(), dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword(), null);
+
+        Map<String, DataSource> replicas = Maps.newLinkedHashMap();
+        List<ReplicaProp> replicaProps = coreProperties.getReadWriteSplitting().getReplicas();
+        if (replicaProps != null) {
+            for (int i = 0; i < replicaProps.size(); i++) {
+                ReplicaProp replica = replicaProps.get(i);
+                String name = "replica" + i;
+                replicas.put(name, newPool(name, dataSourceProperties.determineDriverClassName(), replica.getUrl(),
+                        replica.getUsername(), replica.getPassword(), replica.getMaximumPoolSize()));
+            }
+        }
+        return new ReplicaRoutingDataSource(primary, replicas);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource dataSource) {
+        ReadWriteSplittingProp props = coreProperties.getReadWriteSplitting();
+        long maxLagSeconds = props.getMaxLagSeconds() == null ? 5L : props.getMaxLagSeconds();
+        String lagColumn = props.getLagColumn() == null ? "Seconds_Behind_Master" : props.getLagColumn();
+        return new ReplicaLagMonitor(dataSource, maxLagSeconds, props.getLagQuery(), lagColumn);
+    }
+
+    /**
+     * 写入强制使用主库，并标记read-your-writes
+     */
+    @Bean
+    public WriteTrackingInterceptor writeTrackingInterceptor() {
+        return new WriteTrackingInterceptor();
+    }
+
+    private HikariDataSource newPool(String name, String driverClassName, String url, String username,
+            String password, Integer maximumPoolSize) {
+        HikariDataSource pool = new HikariDataSource();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName("HikariCP-" + name);
+        pool.setDriverClassName(driverClassName);
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        if (maximumPoolSize != null) {
+            pool.setMaximumPoolSize(maximumPoolSize);
+        }
+        return pool;
+    }
+
+}
@@ -7,23 +7,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.extension.injector.LogicSqlInjector;
 import com.baomidou.mybatisplus.extension.plugins.OptimisticLockerInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.PaginationInterceptor;
+import com.spldeolin.beginningmind.core.CoreProperties;
+import com.spldeolin.beginningmind.core.CoreProperties.MapperMetricsProp;
+import com.spldeolin.beginningmind.core.common.CommonMapper;
+import com.spldeolin.beginningmind.core.common.injector.CommonSqlInjector;
+import com.spldeolin.beginningmind.core.datasource.SlowSqlInterceptor;
 import com.spldeolin.beginningmind.core.service.SnowFlakeService;
 
 /**
  * Mybatis Plus配置
  *
- * 启用乐观锁、逻辑删除、分页，注册通用字段补全策略
+ * 启用乐观锁、逻辑删除、分页、慢SQL日志，注册通用字段补全策略
  *
  * @author Deolin 2018/11/10
  */
-@MapperScan(basePackages = "com.spldeolin.beginningmind", markerInterface = BaseMapper.class)
+@MapperScan(basePackages = "com.spldeolin.beginningmind", markerInterface = CommonMapper.class)
 @Configuration
 public class MybatisPlusConfig {
 
+    @Autowired
+    private CoreProperties coreProperties;
+
     @Autowired
     private SnowFlakeService snowFlakeService;
 
@@ -36,11 +43,11 @@ public class MybatisPlusConfig {
     }
 
     /**
-     * 逻辑删除
+     * 逻辑删除，以及CommonMapper追加的方法
      */
     @Bean
     public LogicSqlInjector logicSqlInjector() {
-        return new LogicSqlInjector();
+        return new CommonSqlInjector();
     }
 
     /**
@@ -51,6 +58,16 @@ public class MybatisPlusConfig {
         return new PaginationInterceptor();
     }
 
+    /**
+     * 慢SQL日志
+     */
+    @Bean
+    public SlowSqlInterceptor slowSqlInterceptor() {
+        MapperMetricsProp props = coreProperties.getMapperMetrics();
+        return new SlowSqlInterceptor(
+                props == null || props.getSlowQueryMillis() == null ? 500L : props.getSlowQueryMillis());
+    }
+
     /**
      * 通用字段补全
      */
@@ -69,8 +86,10 @@ public class MybatisPlusConfig {
 
         @Override
         public void insertFill(MetaObject metaObject) {
-            // 使用雪花算法生成ID
-            this.setFieldValByName("id", snowFlakeService.nextId(), metaObject);
+            // 使用雪花算法生成ID（批量插入时ID已预先分配）
+            if (this.getFieldValByName("id", metaObject) == null) {
+                this.setFieldValByName("id", snowFlakeService.nextId(), metaObject);
+            }
             // 使用当前时间
             LocalDateTime now = LocalDateTime.now();
             this.setFieldValByName("insertedAt", now, metaObject);
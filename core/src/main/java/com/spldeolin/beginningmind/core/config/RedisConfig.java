@@ -1,52 +1,74 @@
 package com.spldeolin.beginningmind.core.config;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import com.spldeolin.beginningmind.core.redis.JdkRedisCodec;
+import com.spldeolin.beginningmind.core.redis.KryoRedisCodec;
 import com.spldeolin.beginningmind.core.redis.ProtostuffSerializer;
-import io.lettuce.core.RedisClient;
-import io.lettuce.core.api.StatefulRedisConnection;
-import io.lettuce.core.api.sync.RedisCommands;
+import com.spldeolin.beginningmind.core.redis.RedisCodec;
+import com.spldeolin.beginningmind.core.redis.RedisCodecRegistry;
+import com.spldeolin.beginningmind.core.redis.RedisNearCache;
+import com.spldeolin.beginningmind.core.redis.RedisReentrantLock;
+import com.spldeolin.beginningmind.core.redis.SmileRedisCodec;
+import com.spldeolin.beginningmind.core.security.SignerProfileCache;
+import com.spldeolin.beginningmind.core.security.TokenRevocations;
 
 /**
- * RedisTemplate和Redis分布式锁的配置
+ * Redis编解码器、RedisTemplate和Redis消息订阅的配置
  *
  * @author Deolin 2018/07/16
  */
 @Configuration
 public class RedisConfig {
 
-    @Autowired
-    private RedisProperties redisProperties;
+    @Bean
+    public RedisCodec protostuffCodec() {
+        return new ProtostuffSerializer();
+    }
+
+    @Bean
+    public RedisCodec kryoCodec() {
+        return new KryoRedisCodec();
+    }
+
+    @Bean
+    public RedisCodec smileCodec() {
+        return new SmileRedisCodec();
+    }
+
+    @Bean
+    public RedisCodec jdkCodec() {
+        return new JdkRedisCodec();
+    }
 
+    /**
+     * 以core.redis-codec.default-codec写入value的RedisTemplate
+     */
     @Bean
-    public RedisTemplate<String, Object> overrideSerializer(RedisConnectionFactory factory) {
-        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
-        redisTemplate.setConnectionFactory(factory);
-        redisTemplate.setEnableTransactionSupport(true);
-
-        StringRedisSerializer keySerializer = new StringRedisSerializer();
-        redisTemplate.setKeySerializer(keySerializer);
-        redisTemplate.setHashKeySerializer(keySerializer);
-
-        ProtostuffSerializer valueSerializer = new ProtostuffSerializer();
-        redisTemplate.setValueSerializer(valueSerializer);
-        redisTemplate.setHashValueSerializer(valueSerializer);
-        return redisTemplate;
+    public RedisTemplate<String, Object> overrideSerializer(RedisCodecRegistry codecs) {
+        return codecs.newTemplate(codecs.getDefaultCodec());
     }
 
+    /**
+     * 订阅一级缓存与登录者缓存的失效通知、分布式锁的释放通知、访问令牌的撤销通知
+     */
     @Bean
-    public RedisCommands<String, String> redisCommands() {
-        RedisClient client = RedisClient
-                .create("redis://" + redisProperties.getHost() + ":" + redisProperties.getPort());
-        StatefulRedisConnection<String, String> connection = client.connect();
-        RedisCommands<String, String> sync = connection.sync();
-        sync.auth(redisProperties.getPassword());
-        return sync;
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory factory,
+            RedisNearCache redisNearCache, RedisReentrantLock redisReentrantLock,
+            SignerProfileCache signerProfileCache, TokenRevocations tokenRevocations) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        if (redisNearCache.isEnabled()) {
+            container.addMessageListener(redisNearCache, new ChannelTopic(RedisNearCache.INVALIDATE_CHANNEL));
+        }
+        container.addMessageListener(redisReentrantLock, new ChannelTopic(RedisReentrantLock.RELEASED_CHANNEL));
+        container.addMessageListener(signerProfileCache, new ChannelTopic(SignerProfileCache.INVALIDATE_CHANNEL));
+        container.addMessageListener(tokenRevocations, new ChannelTopic(TokenRevocations.REVOKED_CHANNEL));
+        return container;
     }
 
 }
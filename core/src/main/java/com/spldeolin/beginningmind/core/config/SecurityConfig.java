@@ -20,7 +20,7 @@ public class SecurityConfig {
     @Bean
     public TokenHolder tokenHolder() {
         TokenHolder tokenHolder = new TokenHolder();
-        tokenHolder.holdTokens(securityAccessTokenService.listAll());
+        securityAccessTokenService.forEachBatch(null, 1000, tokenHolder::holdTokens);
         return tokenHolder;
     }
 
@@ -1,7 +1,14 @@
 package com.spldeolin.beginningmind.core.config;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.data.redis.RedisOperationsSessionRepository;
 import org.springframework.session.data.redis.config.annotation.web.http.EnableRedisHttpSession;
+import com.spldeolin.beginningmind.core.CoreProperties;
+import com.spldeolin.beginningmind.core.CoreProperties.SessionProp;
+import com.spldeolin.beginningmind.core.redis.RedisCodecRegistry;
 
 /**
  * Session保存时间、登录超时时间均在这里设置（单位：秒）
@@ -15,4 +22,25 @@ public class SessionConfig {
 
     public static final int SESSION_EXPIRE_SECONDS = 1801;
 
+    /**
+     * Session属性以core.redis-codec.session-codec序列化，读取时自动识别，仍能读取JDK序列化的旧Session
+     */
+    @Bean
+    public RedisSerializer<Object> springSessionDefaultRedisSerializer(RedisCodecRegistry codecs) {
+        return codecs.serializer(codecs.getSessionCodec());
+    }
+
+    /**
+     * SessionRepositoryFilter使用的会话仓库，节流lastAccessedTime的刷新
+     */
+    @Bean
+    @Primary
+    public ThrottledSessionRepository<?> throttledSessionRepository(RedisOperationsSessionRepository sessionRepository,
+            CoreProperties coreProperties) {
+        SessionProp props = coreProperties.getSession();
+        double refreshFraction = props == null || props.getRefreshFraction() == null ? 0.5D
+                : props.getRefreshFraction();
+        return new ThrottledSessionRepository<>(sessionRepository, refreshFraction);
+    }
+
 }
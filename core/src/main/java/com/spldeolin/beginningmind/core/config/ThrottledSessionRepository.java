@@ -0,0 +1,132 @@
+package com.spldeolin.beginningmind.core.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import com.spldeolin.beginningmind.core.config.ThrottledSessionRepository.ThrottledSession;
+
+/**
+ * 节流lastAccessedTime的会话仓库
+ * <pre>
+ * SessionRepositoryFilter在每个请求中都会setLastAccessedTime，使会话在提交时写入Redis（HMSET、PEXPIRE与过期索引）
+ * 这里只在会话的剩余时间不足失效时间的refreshFraction时才真正更新，其余请求中会话没有变化则不写入Redis
+ * </pre>
+ *
+ * @author Deolin 2026-10-18
+ */
+public class ThrottledSessionRepository<S extends Session> implements SessionRepository<ThrottledSession<S>> {
+
+    private final SessionRepository<S> delegate;
+
+    private final double refreshFraction;
+
+    public ThrottledSessionRepository(SessionRepository<S> delegate, double refreshFraction) {
+        this.delegate = delegate;
+        this.refreshFraction = refreshFraction;
+    }
+
+    @Override
+    public ThrottledSession<S> createSession() {
+        return new ThrottledSession<>(delegate.createSession(), refreshFraction);
+    }
+
+    @Override
+    public void save(ThrottledSession<S> session) {
+        delegate.save(session.delegate);
+    }
+
+    @Override
+    public ThrottledSession<S> findById(String id) {
+        S session = delegate.findById(id);
+        return session == null ? null : new ThrottledSession<>(session, refreshFraction);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        delegate.deleteById(id);
+    }
+
+    public static class ThrottledSession<S extends Session> implements Session {
+
+        private final S delegate;
+
+        private final double refreshFraction;
+
+        private ThrottledSession(S delegate, double refreshFraction) {
+            this.delegate = delegate;
+            this.refreshFraction = refreshFraction;
+        }
+
+        /**
+         * 剩余时间不少于失效时间的refreshFraction时忽略
+         */
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            Duration maxInactiveInterval = delegate.getMaxInactiveInterval();
+            long remainingMillis = Duration.between(lastAccessedTime,
+                    delegate.getLastAccessedTime().plus(maxInactiveInterval)).toMillis();
+            if (remainingMillis < maxInactiveInterval.toMillis() * refreshFraction) {
+                delegate.setLastAccessedTime(lastAccessedTime);
+            }
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return delegate.getLastAccessedTime();
+        }
+
+        @Override
+        public String getId() {
+            return delegate.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            return delegate.changeSessionId();
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return delegate.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return delegate.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            delegate.setAttribute(attributeName, attributeValue);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            delegate.removeAttribute(attributeName);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return delegate.getCreationTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            delegate.setMaxInactiveInterval(interval);
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return delegate.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return delegate.isExpired();
+        }
+
+    }
+
+}
@@ -11,6 +11,7 @@ import lombok.Getter;
  *   401 没有认证
  *   403 登录者没有权限
  *   404 HTTP404
+ *   429 请求过于频繁（限流）
  *   500 内部BUG
  *  1001 存在业务错误，无法返回预想结果（商品库存不足等）
  *  </pre>
@@ -32,6 +33,9 @@ public enum ResultCode {
     // 会话中没有该请求需要的权限
     FORBIDDEN(403, "权限不足"),
 
+    // 请求超过了限流阈值
+    TOO_MANY_REQUESTS(429, "请求过于频繁"),
+
     // 出现无法解决的异常
     INTERNAL_ERROR(500, "内部错误"),
 
@@ -0,0 +1,44 @@
+package com.spldeolin.beginningmind.core.controller;
+
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.spldeolin.beginningmind.core.datasource.MapperMetrics;
+import com.spldeolin.beginningmind.core.security.annotation.SecurityAccess;
+import com.spldeolin.beginningmind.core.security.annotation.SecurityAccess.AccessMode;
+import com.spldeolin.beginningmind.core.vo.MapperStatsVO;
+
+/**
+ * 本节点Mapper方法的调用统计
+ *
+ * @author Deolin 2026-10-18
+ */
+@RestController
+@RequestMapping("/mapperMetrics")
+public class MapperMetricsController {
+
+    @Autowired
+    private MapperMetrics mapperMetrics;
+
+    /**
+     * 各Mapper方法的调用次数、异常次数、QPS与耗时分位数（微秒），按p99降序
+     */
+    @GetMapping("/stats")
+    @SecurityAccess(AccessMode.TOKEN)
+    Map<String, MapperStatsVO> stats() {
+        return mapperMetrics.snapshot();
+    }
+
+    /**
+     * 清空统计
+     */
+    @PostMapping("/reset")
+    @SecurityAccess(AccessMode.TOKEN)
+    void reset() {
+        mapperMetrics.reset();
+    }
+
+}
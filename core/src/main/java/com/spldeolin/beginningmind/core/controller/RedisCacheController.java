@@ -0,0 +1,34 @@
+package com.spldeolin.beginningmind.core.controller;
+
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.spldeolin.beginningmind.core.redis.RedisCache;
+import com.spldeolin.beginningmind.core.security.annotation.SecurityAccess;
+import com.spldeolin.beginningmind.core.security.annotation.SecurityAccess.AccessMode;
+import com.spldeolin.beginningmind.core.vo.NearCacheStatsVO;
+
+/**
+ * Redis缓存运行状况
+ *
+ * @author Deolin 2026-10-18
+ */
+@RestController
+@RequestMapping("/redisCache")
+public class RedisCacheController {
+
+    @Autowired
+    private RedisCache redisCache;
+
+    /**
+     * 一级缓存各key前缀的命中、未命中、淘汰统计
+     */
+    @GetMapping("/nearCacheStats")
+    @SecurityAccess(AccessMode.TOKEN)
+    Map<String, NearCacheStatsVO> nearCacheStats() {
+        return redisCache.nearCacheStats();
+    }
+
+}
@@ -8,9 +8,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import com.spldeolin.beginningmind.core.aspect.annotation.ConcurrencyLimited;
+import com.spldeolin.beginningmind.core.aspect.annotation.RateLimited;
+import com.spldeolin.beginningmind.core.aspect.annotation.RateLimited.Algorithm;
 import com.spldeolin.beginningmind.core.vo.CaptchaVO;
+import com.spldeolin.beginningmind.core.vo.SignTokenVO;
 import com.spldeolin.beginningmind.core.vo.SignerProfileVO;
+import com.spldeolin.beginningmind.core.input.RefreshTokenInput;
 import com.spldeolin.beginningmind.core.input.SignInput;
+import com.spldeolin.beginningmind.core.security.annotation.SecurityAccess;
+import com.spldeolin.beginningmind.core.security.annotation.SecurityAccess.AccessMode;
 import com.spldeolin.beginningmind.core.security.util.SignContext;
 import com.spldeolin.beginningmind.core.service.SignService;
 
@@ -31,6 +38,8 @@ public class SignController {
      * 获取验证码
      */
     @GetMapping("/captcha")
+    @RateLimited(algorithm = Algorithm.TOKEN_BUCKET, limit = 10, periodMillis = 60_000L)
+    @ConcurrencyLimited(permits = 64, leaseMillis = 5_000L)
     CaptchaVO captcha() {
         return signService.captcha();
     }
@@ -39,6 +48,7 @@ public class SignController {
      * 登录
      */
     @PostMapping("/in")
+    @RateLimited(limit = 10, periodMillis = 60_000L)
     SignerProfileVO signIn(@RequestBody @Valid SignInput input) {
         return signService.signIn(input);
     }
@@ -51,6 +61,33 @@ public class SignController {
         signService.signOut();
     }
 
+    /**
+     * 无状态登录，获取访问令牌与刷新令牌
+     */
+    @PostMapping("/token")
+    @RateLimited(limit = 10, periodMillis = 60_000L)
+    SignTokenVO signInForToken(@RequestBody @Valid SignInput input) {
+        return signService.signInForToken(input);
+    }
+
+    /**
+     * 使用刷新令牌重新获取访问令牌与刷新令牌
+     */
+    @PostMapping("/token/refresh")
+    @RateLimited(limit = 60, periodMillis = 60_000L)
+    SignTokenVO refreshToken(@RequestBody @Valid RefreshTokenInput input) {
+        return signService.refreshToken(input.getRefreshToken());
+    }
+
+    /**
+     * 无状态登录的登出，撤销当前的访问令牌与刷新令牌（请求体可省略，此时只撤销访问令牌）
+     */
+    @PostMapping("/token/revoke")
+    @SecurityAccess(AccessMode.BEARER)
+    void revokeToken(@RequestBody(required = false) RefreshTokenInput input) {
+        signService.revokeToken(input == null ? null : input.getRefreshToken());
+    }
+
     /**
      * 当前是否登录中
      */
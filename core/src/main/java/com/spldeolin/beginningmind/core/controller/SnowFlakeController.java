@@ -0,0 +1,33 @@
+package com.spldeolin.beginningmind.core.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.spldeolin.beginningmind.core.security.annotation.SecurityAccess;
+import com.spldeolin.beginningmind.core.security.annotation.SecurityAccess.AccessMode;
+import com.spldeolin.beginningmind.core.service.SnowFlakeService;
+import com.spldeolin.beginningmind.core.vo.SnowFlakeStatsVO;
+
+/**
+ * 雪花算法运行状况
+ *
+ * @author Deolin 2026-10-18
+ */
+@RestController
+@RequestMapping("/snowFlake")
+public class SnowFlakeController {
+
+    @Autowired
+    private SnowFlakeService snowFlakeService;
+
+    /**
+     * 时钟回拨容忍统计
+     */
+    @GetMapping("/stats")
+    @SecurityAccess(AccessMode.TOKEN)
+    SnowFlakeStatsVO stats() {
+        return snowFlakeService.stats();
+    }
+
+}
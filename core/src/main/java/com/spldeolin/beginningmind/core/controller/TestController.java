@@ -2,6 +2,7 @@ package com.spldeolin.beginningmind.core.controller;
 
 import java.util.List;
 import java.util.Map;
+import javax.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,8 +15,10 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.spldeolin.beginningmind.core.common.KeysetPage;
 import com.spldeolin.beginningmind.core.entity.User2permissionEntity;
 import com.spldeolin.beginningmind.core.entity.UserEntity;
+import com.spldeolin.beginningmind.core.input.KeysetPageInput;
 import com.spldeolin.beginningmind.core.security.annotation.SecurityAccess;
 import com.spldeolin.beginningmind.core.security.annotation.SecurityAccess.AccessMode;
 import com.spldeolin.beginningmind.core.service.UserService;
@@ -75,6 +78,13 @@ public class TestController {
         return userService.page(page, query);
     }
 
+    @GetMapping("/seek")
+    KeysetPage<UserEntity> seek(@Valid KeysetPageInput input) {
+        LambdaQueryWrapper<UserEntity> query = new LambdaQueryWrapper<>();
+        query.le(UserEntity::getMobile, "999");
+        return userService.seek(input, query);
+    }
+
     @PostMapping("/requestTrackReport")
     @SecurityAccess(AccessMode.TOKEN)
     Map<Integer, Object> requestTrackReport(@RequestBody User2permissionEntity user2permission) {
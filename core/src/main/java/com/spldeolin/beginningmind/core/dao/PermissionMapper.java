@@ -1,6 +1,6 @@
 package com.spldeolin.beginningmind.core.dao;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.spldeolin.beginningmind.core.common.CommonMapper;
 import com.spldeolin.beginningmind.core.entity.PermissionEntity;
 
 /**
@@ -8,6 +8,6 @@ import com.spldeolin.beginningmind.core.entity.PermissionEntity;
  *
  * @author Deolin 2018/11/15
  */
-public interface PermissionMapper extends BaseMapper<PermissionEntity> {
+public interface PermissionMapper extends CommonMapper<PermissionEntity> {
 
 }
\ No newline at end of file
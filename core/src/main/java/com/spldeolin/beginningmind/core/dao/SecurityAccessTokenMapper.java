@@ -1,6 +1,6 @@
 package com.spldeolin.beginningmind.core.dao;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.spldeolin.beginningmind.core.common.CommonMapper;
 import com.spldeolin.beginningmind.core.entity.SecurityAccessTokenEntity;
 
 /**
@@ -8,6 +8,6 @@ import com.spldeolin.beginningmind.core.entity.SecurityAccessTokenEntity;
  *
  * @author Deolin 2019-02-23
  */
-public interface SecurityAccessTokenMapper extends BaseMapper<SecurityAccessTokenEntity> {
+public interface SecurityAccessTokenMapper extends CommonMapper<SecurityAccessTokenEntity> {
 
 }
\ No newline at end of file
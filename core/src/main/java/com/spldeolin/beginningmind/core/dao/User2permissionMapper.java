@@ -1,6 +1,6 @@
 package com.spldeolin.beginningmind.core.dao;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.spldeolin.beginningmind.core.common.CommonMapper;
 import com.spldeolin.beginningmind.core.entity.User2permissionEntity;
 
 /**
@@ -8,6 +8,6 @@ import com.spldeolin.beginningmind.core.entity.User2permissionEntity;
  *
  * @author Deolin 2018/12/07
  */
-public interface User2permissionMapper extends BaseMapper<User2permissionEntity> {
+public interface User2permissionMapper extends CommonMapper<User2permissionEntity> {
 
 }
\ No newline at end of file
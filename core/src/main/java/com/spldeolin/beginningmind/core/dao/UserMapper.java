@@ -1,9 +1,9 @@
 package com.spldeolin.beginningmind.core.dao;
 
 import org.apache.ibatis.annotations.Param;
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.spldeolin.beginningmind.core.common.CommonMapper;
 import com.spldeolin.beginningmind.core.entity.UserEntity;
 
 /**
@@ -11,7 +11,7 @@ import com.spldeolin.beginningmind.core.entity.UserEntity;
  *
  * @author Deolin 2018/11/15
  */
-public interface UserMapper extends BaseMapper<UserEntity> {
+public interface UserMapper extends CommonMapper<UserEntity> {
 
 //    @Select("select * from user where is_deleted = false and mobile = #{mobile}")
     IPage<UserEntity> searchAsPageByMobile(Page<UserEntity> param, @Param("mobile") String mobile);
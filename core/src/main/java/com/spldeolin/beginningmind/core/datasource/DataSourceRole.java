@@ -0,0 +1,20 @@
+package com.spldeolin.beginningmind.core.datasource;
+
+/**
+ * 数据源的角色
+ *
+ * @author Deolin 2026-10-18
+ */
+public enum DataSourceRole {
+
+    /**
+     * 主库，承担所有写入与事务
+     */
+    PRIMARY,
+
+    /**
+     * 从库，承担事务之外的读取，允许短暂的复制延迟
+     */
+    REPLICA
+
+}
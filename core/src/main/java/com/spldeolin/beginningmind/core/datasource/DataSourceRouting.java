@@ -0,0 +1,34 @@
+package com.spldeolin.beginningmind.core.datasource;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * 当前线程期望使用的数据源角色
+ *
+ * 基于ThreadLocal的栈，嵌套调用时内层的声明优先，内层返回后恢复外层的声明；未声明时使用主库
+ *
+ * @author Deolin 2026-10-18
+ */
+public class DataSourceRouting {
+
+    private static final ThreadLocal<Deque<DataSourceRole>> ROLES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    public static void push(DataSourceRole role) {
+        ROLES.get().push(role);
+    }
+
+    public static void pop() {
+        Deque<DataSourceRole> roles = ROLES.get();
+        roles.pop();
+        if (roles.isEmpty()) {
+            ROLES.remove();
+        }
+    }
+
+    public static DataSourceRole current() {
+        DataSourceRole role = ROLES.get().peek();
+        return role == null ? DataSourceRole.PRIMARY : role;
+    }
+
+}
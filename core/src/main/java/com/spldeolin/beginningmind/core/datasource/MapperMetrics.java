@@ -0,0 +1,94 @@
+package com.spldeolin.beginningmind.core.datasource;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.stereotype.Component;
+import com.google.common.collect.Maps;
+import com.spldeolin.beginningmind.core.vo.MapperStatsVO;
+
+/**
+ * 每个Mapper方法的耗时直方图（HdrHistogram）与异常计数
+ *
+ * 记录端无锁（Recorder），统计时把各线程记录的区间直方图合并进累计直方图，只有统计端之间互斥
+ *
+ * @author Deolin 2026-10-18
+ */
+@Component
+public class MapperMetrics {
+
+    /**
+     * 直方图的有效数字位数，3位即0.1%的误差
+     */
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    /**
+     * “Mapper接口名.方法名” -> 统计
+     */
+    private final Map<String, StatementStats> stats = new ConcurrentHashMap<>();
+
+    public void record(String statement, long elapsedNanos, boolean error) {
+        StatementStats statementStats = stats.computeIfAbsent(statement, key -> new StatementStats());
+        statementStats.recorder.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(elapsedNanos)));
+        if (error) {
+            statementStats.errors.increment();
+        }
+    }
+
+    /**
+     * @return 按p99降序
+     */
+    public Map<String, MapperStatsVO> snapshot() {
+        Map<String, MapperStatsVO> result = Maps.newLinkedHashMap();
+        stats.entrySet().stream().map(entry -> Maps.immutableEntry(entry.getKey(), entry.getValue().snapshot()))
+                .sorted(Comparator.comparing((Map.Entry<String, MapperStatsVO> entry) -> entry.getValue().getP99())
+                        .reversed())
+                .forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+        return result;
+    }
+
+    public void reset() {
+        stats.clear();
+    }
+
+    private static class StatementStats {
+
+        private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+
+        private final LongAdder errors = new LongAdder();
+
+        /**
+         * 只在synchronized的snapshot中读写
+         */
+        private final Histogram cumulative = new Histogram(SIGNIFICANT_DIGITS);
+
+        private Histogram interval;
+
+        private long lastSnapshotNanos = System.nanoTime();
+
+        private synchronized MapperStatsVO snapshot() {
+            interval = recorder.getIntervalHistogram(interval);
+            cumulative.add(interval);
+            long now = System.nanoTime();
+            double seconds = (now - lastSnapshotNanos) / 1e9;
+            lastSnapshotNanos = now;
+
+            MapperStatsVO vo = new MapperStatsVO();
+            vo.setCount(cumulative.getTotalCount());
+            vo.setErrors(errors.sum());
+            vo.setQps(seconds > 0 ? interval.getTotalCount() / seconds : 0);
+            vo.setMean(cumulative.getMean());
+            vo.setP50(cumulative.getValueAtPercentile(50));
+            vo.setP99(cumulative.getValueAtPercentile(99));
+            vo.setP999(cumulative.getValueAtPercentile(99.9));
+            vo.setMax(cumulative.getMaxValue());
+            return vo;
+        }
+
+    }
+
+}
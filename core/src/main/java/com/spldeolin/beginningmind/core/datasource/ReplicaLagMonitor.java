@@ -0,0 +1,85 @@
+package com.spldeolin.beginningmind.core.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import com.google.common.collect.Lists;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 从库健康检查
+ *
+ * 定期查询每个从库的复制延迟，延迟超过上限、复制中断或连接失败的从库被移出轮询，恢复后重新加入
+ *
+ * @author Deolin 2026-10-18
+ */
+@Log4j2
+public class ReplicaLagMonitor {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    private final long maxLagSeconds;
+
+    /**
+     * 查询复制延迟的SQL，为空时只检查连接是否可用
+     */
+    private final String lagQuery;
+
+    /**
+     * lagQuery结果中表示延迟秒数的列
+     */
+    private final String lagColumn;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, long maxLagSeconds, String lagQuery,
+            String lagColumn) {
+        this.routingDataSource = routingDataSource;
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagQuery = lagQuery;
+        this.lagColumn = lagColumn;
+    }
+
+    @Scheduled(fixedDelayString = "${core.read-write-splitting.check-interval-millis:5000}")
+    public void check() {
+        List<String> healthy = Lists.newArrayList();
+        for (Map.Entry<String, DataSource> replica : routingDataSource.getReplicas().entrySet()) {
+            if (isHealthy(replica.getKey(), replica.getValue())) {
+                healthy.add(replica.getKey());
+            }
+        }
+        routingDataSource.setHealthyReplicas(healthy);
+    }
+
+    private boolean isHealthy(String name, DataSource replica) {
+        try (Connection connection = replica.getConnection(); Statement statement = connection.createStatement()) {
+            if (StringUtils.isBlank(lagQuery)) {
+                return connection.isValid(1);
+            }
+            try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    log.warn("从库[{}]没有复制状态", name);
+                    return false;
+                }
+                long lag = resultSet.getLong(lagColumn);
+                if (resultSet.wasNull()) {
+                    log.warn("从库[{}]的复制已中断", name);
+                    return false;
+                }
+                if (lag > maxLagSeconds) {
+                    log.warn("从库[{}]的复制延迟{}秒，超过上限{}秒", name, lag, maxLagSeconds);
+                    return false;
+                }
+                return true;
+            }
+        } catch (SQLException e) {
+            log.warn("从库[{}]不可用", name, e);
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.spldeolin.beginningmind.core.datasource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.spldeolin.beginningmind.core.util.WebContext;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 读写分离的数据源
+ * <pre>
+ * 以下情况使用主库：
+ * 1. 当前线程没有声明使用从库（DataSourceRouting）
+ * 2. 处于非只读的事务中（需要外包LazyConnectionDataSourceProxy，否则事务开始取连接时事务尚未生效）
+ * 3. 当前请求已经写过主库（read-your-writes）
+ * 4. 没有健康的从库（ReplicaLagMonitor判定复制延迟过大或不可用）
+ * 其余情况在健康的从库之间轮询
+ * </pre>
+ *
+ * @author Deolin 2026-10-18
+ */
+@Log4j2
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public static final String PRIMARY_KEY = "primary";
+
+    private final DataSource primary;
+
+    /**
+     * 从库名 -> 从库
+     */
+    private final Map<String, DataSource> replicas;
+
+    private volatile List<String> healthyReplicas;
+
+    private final AtomicInteger roundRobin = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableMap(Maps.newLinkedHashMap(replicas));
+        this.healthyReplicas = ImmutableList.copyOf(replicas.keySet());
+
+        Map<Object, Object> targets = Maps.newHashMap(replicas);
+        targets.put(PRIMARY_KEY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public List<String> getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    public void setHealthyReplicas(List<String> healthyReplicas) {
+        if (!healthyReplicas.equals(this.healthyReplicas)) {
+            log.info("可用的从库 {} -> {}", this.healthyReplicas, healthyReplicas);
+        }
+        this.healthyReplicas = ImmutableList.copyOf(healthyReplicas);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (DataSourceRouting.current() != DataSourceRole.REPLICA || isInReadWriteTransaction()
+                || WebContext.hasWrittenPrimary()) {
+            return PRIMARY_KEY;
+        }
+        List<String> healthy = healthyReplicas;
+        if (healthy.isEmpty()) {
+            return PRIMARY_KEY;
+        }
+        return healthy.get(Math.floorMod(roundRobin.getAndIncrement(), healthy.size()));
+    }
+
+    private boolean isInReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    @Override
+    public void destroy() {
+        close(primary);
+        replicas.values().forEach(this::close);
+    }
+
+    private void close(DataSource dataSource) {
+        if (dataSource instanceof Closeable) {
+            try {
+                ((Closeable) dataSource).close();
+            } catch (IOException e) {
+                log.warn("关闭数据源失败", e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.spldeolin.beginningmind.core.datasource;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.ParameterMode;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 执行耗时超过阈值的SQL，连同绑定的参数一起打印WARN日志
+ *
+ * 只在超过阈值后才生成SQL，未超过阈值的语句只多两次System.nanoTime
+ *
+ * @author Deolin 2026-10-18
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "queryCursor",
+                args = {MappedStatement.class, Object.class, RowBounds.class}),
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
+@Log4j2
+public class SlowSqlInterceptor implements Interceptor {
+
+    /**
+     * 打印的参数值的最大长度
+     */
+    private static final int MAX_VALUE_LENGTH = 200;
+
+    private final long slowNanos;
+
+    public SlowSqlInterceptor(long slowQueryMillis) {
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            if (elapsedNanos >= slowNanos) {
+                logSlowSql(invocation.getArgs(), elapsedNanos);
+            }
+        }
+    }
+
+    @Override
+    public Object plugin(Object target) {
+        return target instanceof Executor ? Plugin.wrap(target, this) : target;
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+
+    private void logSlowSql(Object[] args, long elapsedNanos) {
+        MappedStatement ms = (MappedStatement) args[0];
+        try {
+            BoundSql boundSql = ms.getBoundSql(args[1]);
+            log.warn("慢SQL {}ms [{}] {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos), ms.getId(),
+                    bindParameters(ms.getConfiguration(), boundSql));
+        } catch (Exception e) {
+            log.warn("慢SQL {}ms [{}]，生成SQL失败", TimeUnit.NANOSECONDS.toMillis(elapsedNanos), ms.getId(), e);
+        }
+    }
+
+    /**
+     * 按照DefaultParameterHandler取参数值的方式，把SQL中的?依次替换成参数值
+     */
+    private String bindParameters(Configuration configuration, BoundSql boundSql) {
+        String sql = boundSql.getSql().replaceAll("\\s+", " ");
+        List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+        if (parameterMappings == null || parameterMappings.isEmpty()) {
+            return sql;
+        }
+
+        Object parameterObject = boundSql.getParameterObject();
+        MetaObject metaObject = null;
+        StringBuilder result = new StringBuilder(sql.length() + parameterMappings.size() * 16);
+        int from = 0;
+        for (ParameterMapping parameterMapping : parameterMappings) {
+            if (parameterMapping.getMode() == ParameterMode.OUT) {
+                continue;
+            }
+            int placeholder = sql.indexOf('?', from);
+            if (placeholder == -1) {
+                break;
+            }
+
+            String property = parameterMapping.getProperty();
+            Object value;
+            if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (parameterObject == null) {
+                value = null;
+            } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+                value = parameterObject;
+            } else {
+                if (metaObject == null) {
+                    metaObject = configuration.newMetaObject(parameterObject);
+                }
+                value = metaObject.getValue(property);
+            }
+
+            result.append(sql, from, placeholder).append(literal(value));
+            from = placeholder + 1;
+        }
+        return result.append(sql, from, sql.length()).toString();
+    }
+
+    private static String literal(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        String text = value.toString();
+        if (text.length() > MAX_VALUE_LENGTH) {
+            text = text.substring(0, MAX_VALUE_LENGTH) + "...";
+        }
+        return "'" + text.replace("'", "''") + "'";
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.spldeolin.beginningmind.core.datasource;
+
+import java.util.Properties;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import com.spldeolin.beginningmind.core.util.WebContext;
+
+/**
+ * 执行INSERT、UPDATE、DELETE时强制使用主库，并标记当前请求写过主库，之后的读取不再使用从库
+ *
+ * 非事务的SqlSession在执行语句时才获取连接，因此即使写入发生在按命名约定使用从库的方法中，也会写入主库
+ *
+ * @author Deolin 2026-10-18
+ */
+@Intercepts(@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}))
+public class WriteTrackingInterceptor implements Interceptor {
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        WebContext.markWrotePrimary();
+        DataSourceRouting.push(DataSourceRole.PRIMARY);
+        try {
+            return invocation.proceed();
+        } finally {
+            DataSourceRouting.pop();
+        }
+    }
+
+    @Override
+    public Object plugin(Object target) {
+        return target instanceof Executor ? Plugin.wrap(target, this) : target;
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+    }
+
+}
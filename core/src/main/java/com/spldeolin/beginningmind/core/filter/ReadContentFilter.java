@@ -20,7 +20,7 @@ import lombok.extern.log4j.Log4j2;
  *
  * 前置：包装并替换request和response对象
  *
- * 后置：从包装对象读取content，为response包装对象调用
+ * 后置：从包装对象读取content，为response包装对象调用（携带令牌的请求不记录content）
  *
  * @author Deolin 2018/12/06
  */
@@ -31,6 +31,13 @@ public class ReadContentFilter extends IngoreSwaggerApiFilter {
 
     public static final int ORDER = 1 + LogMdcFilter.ORDER;
 
+    /**
+     * request content或response content中含有令牌的请求，content不写入请求轨迹
+     */
+    private static final String TOKEN_PATH_PREFIX = "/sign/token";
+
+    private static final String HIDDEN_CONTENT = "[hidden]";
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws IOException, ServletException {
@@ -46,7 +53,18 @@ public class ReadContentFilter extends IngoreSwaggerApiFilter {
         filterChain.doFilter(wrappedRequest, wrappedResponse);
 
         // 向RequestTrack填入request和response的content（同步）
-        fillContent(track, wrappedRequest, wrappedResponse);
+        if (request.getServletPath().startsWith(TOKEN_PATH_PREFIX)) {
+            hideContent(track, wrappedResponse);
+        } else {
+            fillContent(track, wrappedRequest, wrappedResponse);
+        }
+    }
+
+    private void hideContent(RequestTrackDTO track, ContentCachingResponseWrapper wrappedResponse)
+            throws IOException {
+        wrappedResponse.copyBodyToResponse();
+        track.setRequestContent(HIDDEN_CONTENT);
+        track.setResponseContent(HIDDEN_CONTENT);
     }
 
     private void fillContent(RequestTrackDTO track, ContentCachingRequestWrapper wrappedRequest,
@@ -5,10 +5,10 @@ import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import com.spldeolin.beginningmind.core.config.SessionConfig;
-import com.spldeolin.beginningmind.core.util.WebContext;
 import lombok.extern.log4j.Log4j2;
 
 /**
@@ -16,7 +16,7 @@ import lombok.extern.log4j.Log4j2;
  *
  * 前置：无
  *
- * 后置：刷新会话
+ * 后置：刷新会话（会话存在，且失效时间与SESSION_EXPIRE_SECONDS不一致时）
  *
  * @author Deolin 2018/12/06
  */
@@ -33,11 +33,21 @@ public class SessionReflashFilter extends IngoreSwaggerApiFilter {
         filterChain.doFilter(request, response);
 
         // 刷新全局会话的失效时间
-        reflashGlobalSession();
+        reflashGlobalSession(request);
     }
 
-    private void reflashGlobalSession() {
-        WebContext.getSession().setMaxInactiveInterval(SessionConfig.SESSION_EXPIRE_SECONDS);
+    /**
+     * lastAccessedTime的刷新由ThrottledSessionRepository节流，失效时间随之顺延，
+     * 这里只在失效时间与约定不一致时才setMaxInactiveInterval，避免多写一个Redis字段
+     */
+    private void reflashGlobalSession(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        if (session == null) {
+            return;
+        }
+        if (session.getMaxInactiveInterval() != SessionConfig.SESSION_EXPIRE_SECONDS) {
+            session.setMaxInactiveInterval(SessionConfig.SESSION_EXPIRE_SECONDS);
+        }
     }
 
 }
@@ -5,6 +5,7 @@ import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
@@ -16,7 +17,7 @@ import lombok.extern.log4j.Log4j2;
 /**
  * 优先级：最外层
  *
- * 前置：将request、response、session、新构造的请求轨迹存入ThreadLocal，insignia存入headers
+ * 前置：将request、response、新构造的请求轨迹存入ThreadLocal，insignia存入headers（session在需要时才获取）
  *
  * 后置：补全并保存RequestTrackDTO对象（异步），清空ThreadLocal
  *
@@ -43,23 +44,32 @@ public class WebContextFilter extends IngoreSwaggerApiFilter {
             return;
         }
 
-        // 将request、response、session、新构造的请求轨迹存入ThreadLocal
+        // 将request、response、新构造的请求轨迹存入ThreadLocal
         RequestTrackDTO track = new RequestTrackDTO();
         WebContext.setRequestTrack(track);
         WebContext.setRequest(request);
         WebContext.setResponse(response);
-        WebContext.setSession(request.getSession());
 
-        filterChain.doFilter(request, response);
+        try {
+            filterChain.doFilter(request, response);
 
-        // 补全并保存RequestTrackDTO对象（异步）
-        requestTrackAsyncHandler.asyncCompleteAndSave(track, request);
+            // 会话ID（不创建会话）
+            HttpSession session = request.getSession(false);
+            if (session != null) {
+                track.setSessionId(session.getId());
+            }
 
-        // 清空ThreadLocal
-        WebContext.removeRequestTrack();
-        WebContext.removeRequest();
-        WebContext.removeResponse();
-        WebContext.removeSession();
+            // 补全并保存RequestTrackDTO对象（异步）
+            requestTrackAsyncHandler.asyncCompleteAndSave(track, request);
+        } finally {
+            // 清空ThreadLocal（请求异常结束时也要清空，避免泄漏到线程池中的下一个请求）
+            WebContext.removeRequestTrack();
+            WebContext.removeRequest();
+            WebContext.removeResponse();
+            WebContext.removeSession();
+            WebContext.removeSignedToken();
+            WebContext.removeWrotePrimary();
+        }
     }
 
 }
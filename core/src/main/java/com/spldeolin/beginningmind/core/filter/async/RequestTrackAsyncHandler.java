@@ -1,6 +1,7 @@
 package com.spldeolin.beginningmind.core.filter.async;
 
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import javax.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,9 +10,13 @@ import org.springframework.data.elasticsearch.core.query.IndexQuery;
 import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import com.google.common.collect.ImmutableSet;
+import com.spldeolin.beginningmind.core.CoreProperties;
+import com.spldeolin.beginningmind.core.CoreProperties.ClientIpProp;
 import com.spldeolin.beginningmind.core.entity.UserEntity;
 import com.spldeolin.beginningmind.core.filter.dto.RequestTrackDTO;
 import com.spldeolin.beginningmind.core.service.UserService;
+import com.spldeolin.beginningmind.core.util.Ips;
 import lombok.extern.log4j.Log4j2;
 
 /**
@@ -21,12 +26,20 @@ import lombok.extern.log4j.Log4j2;
 @Log4j2
 public class RequestTrackAsyncHandler {
 
+    /**
+     * 值不写入请求轨迹的query参数
+     */
+    private static final Set<String> HIDDEN_QUERY_KEYS = ImmutableSet.of("refreshToken", "accessToken");
+
     @Autowired
     private UserService userService;
 
     @Autowired
     private ElasticsearchTemplate elasticsearchTemplate;
 
+    @Autowired
+    private CoreProperties coreProperties;
+
     @Async
     public void asyncCompleteAndSave(RequestTrackDTO track, HttpServletRequest request) {
         analysizRequestTrack(track, request);
@@ -57,14 +70,15 @@ public class RequestTrackAsyncHandler {
 
         Long signedUserId = track.getUserId();
         if (signedUserId != null) {
-            UserEntity user = userService.get(track.getUserId()).orElseThrow(() -> new RuntimeException("不存在或是已被删除"));
+            // 并发处理的请求轨迹共用一次批量查询
+            UserEntity user = userService.getAsync(track.getUserId()).join()
+                    .orElseThrow(() -> new RuntimeException("不存在或是已被删除"));
             track.setUserName(user.getName());
             track.setUserMobile(user.getMobile());
         }
 
-        track.setIp(getIpFromRequest(request));
-
-        track.setSessionId(request.getSession().getId());
+        ClientIpProp props = coreProperties.getClientIp();
+        track.setIp(Ips.getClientIp(request, props == null ? null : props.getTrustedProxies()));
     }
 
     private String getFullUrlFromRequest(HttpServletRequest request) {
@@ -77,28 +91,11 @@ public class RequestTrackAsyncHandler {
                     url.append("&");
                     url.append(queryKey);
                     url.append("=");
-                    url.append(queryValue);
+                    url.append(HIDDEN_QUERY_KEYS.contains(queryKey) ? "[hidden]" : queryValue);
                 }
             }
         }
         return url.toString().replaceFirst("&", "?");
     }
 
-    private String getIpFromRequest(HttpServletRequest request) {
-        String ip = request.getHeader("x-forwarded-for");
-        if (null == ip || 0 == ip.length() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("Proxy-Client-IP");
-        }
-        if (null == ip || 0 == ip.length() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("WL-Proxy-Client-IP");
-        }
-        if (null == ip || 0 == ip.length() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getHeader("X-Real-IP");
-        }
-        if (null == ip || 0 == ip.length() || "unknown".equalsIgnoreCase(ip)) {
-            ip = request.getRemoteAddr();
-        }
-        return ip;
-    }
-
 }
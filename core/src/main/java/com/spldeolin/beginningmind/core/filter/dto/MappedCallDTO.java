@@ -2,6 +2,7 @@ package com.spldeolin.beginningmind.core.filter.dto;
 
 import java.io.Serializable;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 /**
  * 请求调用Mapper中方法的信息，在MapperAspect中构建
@@ -9,6 +10,7 @@ import lombok.Data;
  * @author Deolin 2018/12/28
  */
 @Data
+@NoArgsConstructor
 public class MappedCallDTO implements Serializable {
 
     /**
@@ -17,10 +19,15 @@ public class MappedCallDTO implements Serializable {
     private String target;
 
     /**
-     * 耗时
+     * 耗时（毫秒）
      */
     private Long elapsed;
 
+    /**
+     * 耗时（微秒）
+     */
+    private Long elapsedMicros;
+
     private static final long serialVersionUID = 1L;
 
     public MappedCallDTO(String target, Long elapsed) {
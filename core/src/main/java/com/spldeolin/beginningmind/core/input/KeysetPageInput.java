@@ -0,0 +1,51 @@
+package com.spldeolin.beginningmind.core.input;
+
+import java.io.Serializable;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
+import lombok.Data;
+
+/**
+ * 键集分页（seek）的请求参数
+ * <pre>
+ * 第一页不传cursor，之后每次传入上一页的nextCursor；翻页期间sort与desc应保持不变
+ * 每一页都是一次索引范围扫描，耗时与页的深度无关，代价是不能跳页
+ * </pre>
+ *
+ * @author Deolin 2026-10-18
+ */
+@Data
+public class KeysetPageInput implements Serializable {
+
+    /**
+     * 上一页的nextCursor
+     */
+    private String cursor;
+
+    /**
+     * 每页的实体个数
+     */
+    @Min(1)
+    @Max(1000)
+    private Integer size = 20;
+
+    /**
+     * 排序的列名，为空时按ID（雪花算法ID，即插入时间）排序；这一列上应有(列, id)的联合索引
+     */
+    @Pattern(regexp = "[a-z_][a-z0-9_]*")
+    private String sort;
+
+    /**
+     * 是否降序
+     */
+    private Boolean desc = false;
+
+    /**
+     * 是否查询总数（一次额外的COUNT），建议只在第一页请求
+     */
+    private Boolean withTotal = false;
+
+    private static final long serialVersionUID = 1L;
+
+}
@@ -0,0 +1,23 @@
+package com.spldeolin.beginningmind.core.input;
+
+import java.io.Serializable;
+import javax.validation.constraints.NotBlank;
+import lombok.Data;
+
+/**
+ * 刷新令牌，放在请求体中传递，避免出现在URL里
+ *
+ * @author Deolin 2026-10-18
+ */
+@Data
+public class RefreshTokenInput implements Serializable {
+
+    /**
+     * 刷新令牌
+     */
+    @NotBlank
+    private String refreshToken;
+
+    private static final long serialVersionUID = 1L;
+
+}
@@ -0,0 +1,60 @@
+package com.spldeolin.beginningmind.core.redis;
+
+import java.io.IOException;
+import com.fasterxml.jackson.annotation.JsonTypeInfo.Id;
+import com.fasterxml.jackson.databind.DatabindContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+
+/**
+ * 只还原RedisTypeAllowList允许的类型，其余的类型标记一律拒绝
+ *
+ * @author Deolin 2026-10-18
+ */
+class AllowListTypeIdResolver implements TypeIdResolver {
+
+    private final TypeIdResolver delegate;
+
+    AllowListTypeIdResolver(TypeIdResolver delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void init(JavaType baseType) {
+        delegate.init(baseType);
+    }
+
+    @Override
+    public String idFromValue(Object value) {
+        return delegate.idFromValue(value);
+    }
+
+    @Override
+    public String idFromValueAndType(Object value, Class<?> suggestedType) {
+        return delegate.idFromValueAndType(value, suggestedType);
+    }
+
+    @Override
+    public String idFromBaseType() {
+        return delegate.idFromBaseType();
+    }
+
+    @Override
+    public JavaType typeFromId(DatabindContext context, String id) throws IOException {
+        if (!RedisTypeAllowList.isAllowed(id)) {
+            throw new IOException("不允许反序列化的类型 " + id);
+        }
+        return delegate.typeFromId(context, id);
+    }
+
+    @Override
+    public String getDescForKnownTypeIds() {
+        return delegate.getDescForKnownTypeIds();
+    }
+
+    @Override
+    public Id getMechanism() {
+        return delegate.getMechanism();
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.spldeolin.beginningmind.core.redis;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.util.ClassUtils;
+
+/**
+ * 基于JDK序列化的编解码器，value需要实现Serializable
+ *
+ * 反序列化时只接受RedisTypeAllowList允许的类型
+ *
+ * @author Deolin 2026-10-18
+ */
+public class JdkRedisCodec extends JdkSerializationRedisSerializer implements RedisCodec {
+
+    public static final String NAME = "jdk";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isEncodedBy(byte[] bytes) {
+        return bytes.length >= 2 && bytes[0] == (byte) 0xAC && bytes[1] == (byte) 0xED;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try (ObjectInputStream input = new AllowListObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return input.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new SerializationException("JDK反序列化失败", e);
+        }
+    }
+
+    private static class AllowListObjectInputStream extends ObjectInputStream {
+
+        private AllowListObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (!RedisTypeAllowList.isAllowed(desc.getName())) {
+                throw new InvalidClassException(desc.getName(), "不允许反序列化的类型");
+            }
+            return ClassUtils.forName(desc.getName(), ClassUtils.getDefaultClassLoader());
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass(String[] interfaces) throws IOException {
+            throw new InvalidClassException("不允许反序列化动态代理");
+        }
+
+    }
+
+}
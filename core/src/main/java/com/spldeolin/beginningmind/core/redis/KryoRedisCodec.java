@@ -0,0 +1,104 @@
+package com.spldeolin.beginningmind.core.redis;
+
+import org.objenesis.strategy.StdInstantiatorStrategy;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.util.ClassUtils;
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Kryo.DefaultInstantiatorStrategy;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Registration;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.util.DefaultClassResolver;
+import com.esotericsoftware.kryo.util.MapReferenceResolver;
+
+/**
+ * 基于Kryo的编解码器
+ *
+ * Kryo实例不是线程安全的，每个线程持有各自的Kryo与输出缓冲
+ * 反序列化时只接受RedisTypeAllowList允许的类型
+ *
+ * @author Deolin 2026-10-18
+ */
+public class KryoRedisCodec implements RedisCodec {
+
+    public static final String NAME = "kryo";
+
+    private static final byte[] HEADER = {(byte) 0xC1, 0x01};
+
+    /**
+     * 输出缓冲超过该大小时不再复用，避免一次大value长期占用线程内存
+     */
+    private static final int MAX_REUSED_BUFFER_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<Kryo> KRYOS = ThreadLocal.withInitial(() -> {
+        Kryo kryo = new Kryo(new AllowListClassResolver(), new MapReferenceResolver());
+        kryo.setRegistrationRequired(false);
+        kryo.setReferences(true);
+        kryo.setInstantiatorStrategy(new DefaultInstantiatorStrategy(new StdInstantiatorStrategy()));
+        kryo.setClassLoader(ClassUtils.getDefaultClassLoader());
+        return kryo;
+    });
+
+    private static final ThreadLocal<Output> OUTPUTS = ThreadLocal.withInitial(() -> new Output(4096, -1));
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isEncodedBy(byte[] bytes) {
+        return bytes.length >= HEADER.length && bytes[0] == HEADER[0] && bytes[1] == HEADER[1];
+    }
+
+    @Override
+    public byte[] serialize(Object t) throws SerializationException {
+        if (t == null) {
+            return new byte[0];
+        }
+        Output output = OUTPUTS.get();
+        output.clear();
+        try {
+            output.writeBytes(HEADER);
+            KRYOS.get().writeClassAndObject(output, t);
+            return output.toBytes();
+        } catch (RuntimeException e) {
+            throw new SerializationException("Kryo序列化失败 type=" + t.getClass().getName(), e);
+        } finally {
+            if (output.getBuffer().length > MAX_REUSED_BUFFER_SIZE) {
+                OUTPUTS.remove();
+            }
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            Input input = new Input(bytes, HEADER.length, bytes.length - HEADER.length);
+            return KRYOS.get().readClassAndObject(input);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Kryo反序列化失败", e);
+        }
+    }
+
+    /**
+     * 数据中的类型在实例化之前经过RedisTypeAllowList校验
+     */
+    private static class AllowListClassResolver extends DefaultClassResolver {
+
+        @Override
+        public Registration readClass(Input input) {
+            Registration registration = super.readClass(input);
+            if (registration != null && !RedisTypeAllowList.isAllowed(registration.getType())) {
+                throw new KryoException("不允许反序列化的类型 " + registration.getType().getName());
+            }
+            return registration;
+        }
+
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.spldeolin.beginningmind.core.redis;
+
+import java.io.Serializable;
+import lombok.Data;
+
+/**
+ * RedisCache.getOrLoad写入Redis的值，附带提前刷新（XFetch）需要的信息
+ *
+ * @author Deolin 2026-10-18
+ */
+@Data
+public class LoadedValue<T> implements Serializable {
+
+    private T value;
+
+    /**
+     * 上一次计算value耗费的毫秒数
+     */
+    private Long deltaMillis;
+
+    /**
+     * 缓存失效的时刻（epoch毫秒）
+     */
+    private Long expireAt;
+
+    private static final long serialVersionUID = 1L;
+
+}
@@ -0,0 +1,37 @@
+package com.spldeolin.beginningmind.core.redis;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import com.google.common.io.BaseEncoding;
+
+/**
+ * Lua脚本与其SHA1，用于EVALSHA
+ *
+ * @author Deolin 2026-10-18
+ */
+public class LuaScript {
+
+    private final String text;
+
+    private final String sha1;
+
+    public LuaScript(String text) {
+        this.text = text;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(text.getBytes(StandardCharsets.UTF_8));
+            this.sha1 = BaseEncoding.base16().lowerCase().encode(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getSha1() {
+        return sha1;
+    }
+
+}
@@ -1,31 +1,111 @@
 package com.spldeolin.beginningmind.core.redis;
 
-import org.springframework.data.redis.serializer.RedisSerializer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.util.ClassUtils;
 import com.dyuproject.protostuff.LinkedBuffer;
 import com.dyuproject.protostuff.ProtostuffIOUtil;
 import com.dyuproject.protostuff.Schema;
 import com.dyuproject.protostuff.runtime.RuntimeSchema;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
 
 /**
+ * 线程安全的Protostuff序列化器
+ *
+ * 格式：MAGIC(1) FLAGS(1) [原长度(4)] 正文，FLAGS标记正文是否经过LZ4压缩
+ * 正文：KIND(1) 数据，普通POJO以类名作为类型标记，并直接使用该类的Schema，不再经过包装类
+ * 类型标记保留完整的类名而不是注册的短ID，数据自描述，不需要在各节点、各版本之间同步ID表
+ *
+ * 兼容反序列化旧格式（包装类）与JDK序列化的数据，以便已有的缓存和Session平滑迁移
+ *
+ * 反序列化的所有路径（类型标记、包装类与POJO中由Protostuff按类名还原的字段、JDK序列化）
+ * 都只接受RedisTypeAllowList允许的类型：Protostuff通过线程上下文类加载器加载类名，
+ * 解码期间将其替换为按允许列表过滤的类加载器；本节点自己序列化过的类型已被Protostuff缓存，不再经过过滤
+ *
  * @author Deolin 2018/07/29
  */
-public class ProtostuffSerializer implements RedisSerializer<Object> {
+public class ProtostuffSerializer implements RedisCodec {
 
-    private boolean isEmpty(byte[] data) {
-        return (data == null || data.length == 0);
-    }
+    public static final String NAME = "protostuff";
+
+    /**
+     * 正文超过该字节数时进行压缩
+     */
+    public static final int DEFAULT_COMPRESS_THRESHOLD = 1024;
+
+    private static final byte MAGIC = (byte) 0xBD;
+
+    private static final byte FLAG_PLAIN = 0;
+
+    private static final byte FLAG_LZ4 = 1;
+
+    private static final byte KIND_STRING = 1;
+
+    private static final byte KIND_LONG = 2;
+
+    private static final byte KIND_INTEGER = 3;
+
+    private static final byte KIND_BOOLEAN = 4;
+
+    private static final byte KIND_POJO = 5;
+
+    private static final byte KIND_WRAPPED = 6;
 
-    private final Schema<ProtoWrapper> schema;
+    private static final int HEADER_LENGTH = 2;
 
-    private final ProtoWrapper wrapper;
+    private static final int ORIGINAL_LENGTH_LENGTH = 4;
 
-    private final LinkedBuffer buffer;
+    private static final Schema<ProtoWrapper> WRAPPER_SCHEMA = RuntimeSchema.getSchema(ProtoWrapper.class);
+
+    private static final ThreadLocal<LinkedBuffer> BUFFERS = ThreadLocal.withInitial(
+            () -> LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE));
+
+    /**
+     * 序列化时按Class查找
+     */
+    private static final Map<Class<?>, PojoType> TYPES_BY_CLASS = new ConcurrentHashMap<>();
+
+    /**
+     * 反序列化时按类名查找，避免每次Class.forName
+     */
+    private static final Map<String, PojoType> TYPES_BY_NAME = new ConcurrentHashMap<>();
+
+    private final int compressThreshold;
+
+    private final LZ4Compressor compressor;
+
+    private final LZ4FastDecompressor decompressor;
+
+    private final JdkRedisCodec jdkCodec = new JdkRedisCodec();
 
     public ProtostuffSerializer() {
-        this.wrapper = new ProtoWrapper();
-        this.schema = RuntimeSchema.getSchema(ProtoWrapper.class);
-        this.buffer = LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE);
+        this(DEFAULT_COMPRESS_THRESHOLD);
+    }
+
+    public ProtostuffSerializer(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * 只识别新格式，旧格式由RedisCodecRegistry在无法识别时兜底交给本编解码器
+     */
+    @Override
+    public boolean isEncodedBy(byte[] bytes) {
+        return bytes.length > 0 && bytes[0] == MAGIC;
     }
 
     @Override
@@ -33,12 +113,23 @@ public class ProtostuffSerializer implements RedisSerializer<Object> {
         if (t == null) {
             return new byte[0];
         }
-        wrapper.data = t;
+        byte[] body;
         try {
-            return ProtostuffIOUtil.toByteArray(wrapper, schema, buffer);
-        } finally {
-            buffer.clear();
+            body = encodeBody(t);
+        } catch (RuntimeException e) {
+            throw new SerializationException("序列化失败 type=" + t.getClass().getName(), e);
         }
+        if (body.length > compressThreshold) {
+            byte[] compressed = compress(body);
+            if (compressed != null) {
+                return compressed;
+            }
+        }
+        byte[] result = new byte[HEADER_LENGTH + body.length];
+        result[0] = MAGIC;
+        result[1] = FLAG_PLAIN;
+        System.arraycopy(body, 0, result, HEADER_LENGTH, body.length);
+        return result;
     }
 
     @Override
@@ -46,10 +137,246 @@ public class ProtostuffSerializer implements RedisSerializer<Object> {
         if (isEmpty(bytes)) {
             return null;
         }
+        if (bytes[0] != MAGIC) {
+            return deserializeLegacy(bytes);
+        }
+
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(new AllowListClassLoader(contextClassLoader));
+        try {
+            if (bytes[1] == FLAG_LZ4) {
+                int originalLength = readInt(bytes, HEADER_LENGTH);
+                byte[] body = new byte[originalLength];
+                decompressor.decompress(bytes, HEADER_LENGTH + ORIGINAL_LENGTH_LENGTH, body, 0, originalLength);
+                return decodeBody(body, 0);
+            }
+            return decodeBody(bytes, HEADER_LENGTH);
+        } catch (SerializationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new SerializationException("反序列化失败", e);
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    private byte[] encodeBody(Object t) {
+        if (t instanceof String) {
+            return withKind(KIND_STRING, ((String) t).getBytes(StandardCharsets.UTF_8));
+        }
+        if (t instanceof Long) {
+            return withKind(KIND_LONG, longToBytes((Long) t));
+        }
+        if (t instanceof Integer) {
+            byte[] data = new byte[4];
+            writeInt(data, 0, (Integer) t);
+            return withKind(KIND_INTEGER, data);
+        }
+        if (t instanceof Boolean) {
+            return new byte[]{KIND_BOOLEAN, (byte) ((Boolean) t ? 1 : 0)};
+        }
+
+        PojoType type = pojoTypeOf(t.getClass());
+        LinkedBuffer buffer = BUFFERS.get();
+        try {
+            if (type == null) {
+                ProtoWrapper wrapper = new ProtoWrapper();
+                wrapper.data = t;
+                return withKind(KIND_WRAPPED, ProtostuffIOUtil.toByteArray(wrapper, WRAPPER_SCHEMA, buffer));
+            }
+            byte[] data = ProtostuffIOUtil.toByteArray(t, type.getSchema(), buffer);
+            byte[] name = type.getNameBytes();
+            byte[] body = new byte[3 + name.length + data.length];
+            body[0] = KIND_POJO;
+            body[1] = (byte) (name.length >>> 8);
+            body[2] = (byte) name.length;
+            System.arraycopy(name, 0, body, 3, name.length);
+            System.arraycopy(data, 0, body, 3 + name.length, data.length);
+            return body;
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private Object decodeBody(byte[] bytes, int offset) {
+        byte kind = bytes[offset];
+        int dataOffset = offset + 1;
+        int dataLength = bytes.length - dataOffset;
+        switch (kind) {
+            case KIND_STRING:
+                return new String(bytes, dataOffset, dataLength, StandardCharsets.UTF_8);
+            case KIND_LONG:
+                return bytesToLong(bytes, dataOffset);
+            case KIND_INTEGER:
+                return readInt(bytes, dataOffset);
+            case KIND_BOOLEAN:
+                return bytes[dataOffset] != 0;
+            case KIND_POJO:
+                int nameLength = (bytes[dataOffset] & 0xFF) << 8 | (bytes[dataOffset + 1] & 0xFF);
+                String name = new String(bytes, dataOffset + 2, nameLength, StandardCharsets.UTF_8);
+                PojoType type = pojoTypeOf(name);
+                Object message = type.getSchema().newMessage();
+                int messageOffset = dataOffset + 2 + nameLength;
+                ProtostuffIOUtil.mergeFrom(bytes, messageOffset, bytes.length - messageOffset, message,
+                        type.getSchema());
+                return message;
+            case KIND_WRAPPED:
+                ProtoWrapper wrapper = WRAPPER_SCHEMA.newMessage();
+                ProtostuffIOUtil.mergeFrom(bytes, dataOffset, dataLength, wrapper, WRAPPER_SCHEMA);
+                return wrapper.data;
+            default:
+                throw new SerializationException("未知的类型标记 kind=" + kind);
+        }
+    }
+
+    /**
+     * 旧格式：整个对象包装在ProtoWrapper中；Spring Session默认的JDK序列化以0xACED开头
+     */
+    private Object deserializeLegacy(byte[] bytes) {
+        if (jdkCodec.isEncodedBy(bytes)) {
+            return jdkCodec.deserialize(bytes);
+        }
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(new AllowListClassLoader(contextClassLoader));
+        try {
+            ProtoWrapper wrapper = WRAPPER_SCHEMA.newMessage();
+            ProtostuffIOUtil.mergeFrom(bytes, wrapper, WRAPPER_SCHEMA);
+            return wrapper.data;
+        } catch (RuntimeException e) {
+            throw new SerializationException("反序列化旧格式失败", e);
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    /**
+     * @return 压缩后没有变小时返回null
+     */
+    private byte[] compress(byte[] body) {
+        int prefix = HEADER_LENGTH + ORIGINAL_LENGTH_LENGTH;
+        byte[] result = new byte[prefix + compressor.maxCompressedLength(body.length)];
+        int compressedLength = compressor.compress(body, 0, body.length, result, prefix);
+        if (compressedLength >= body.length) {
+            return null;
+        }
+        result[0] = MAGIC;
+        result[1] = FLAG_LZ4;
+        writeInt(result, HEADER_LENGTH, body.length);
+        return Arrays.copyOf(result, prefix + compressedLength);
+    }
+
+    /**
+     * 只有业务自定义的类才直接使用自身的Schema，JDK类型、集合、数组、枚举仍经过包装类
+     */
+    private static PojoType pojoTypeOf(Class<?> clazz) {
+        PojoType type = TYPES_BY_CLASS.get(clazz);
+        if (type != null) {
+            return type;
+        }
+        if (clazz.isArray() || clazz.isEnum() || clazz.isPrimitive() || clazz.getName().startsWith("java.")
+                || Collection.class.isAssignableFrom(clazz) || Map.class.isAssignableFrom(clazz)) {
+            return null;
+        }
+        return TYPES_BY_CLASS.computeIfAbsent(clazz, PojoType::new);
+    }
+
+    private static PojoType pojoTypeOf(String className) {
+        PojoType type = TYPES_BY_NAME.get(className);
+        if (type != null) {
+            return type;
+        }
+        if (!RedisTypeAllowList.isAllowed(className)) {
+            throw new SerializationException("不允许反序列化的类型 " + className);
+        }
+        return TYPES_BY_NAME.computeIfAbsent(className, name -> {
+            try {
+                return new PojoType(ClassUtils.forName(name, ClassUtils.getDefaultClassLoader()));
+            } catch (ClassNotFoundException e) {
+                throw new SerializationException("找不到类型 " + name, e);
+            }
+        });
+    }
+
+    private static byte[] withKind(byte kind, byte[] data) {
+        byte[] body = new byte[1 + data.length];
+        body[0] = kind;
+        System.arraycopy(data, 0, body, 1, data.length);
+        return body;
+    }
+
+    private static byte[] longToBytes(long value) {
+        byte[] data = new byte[8];
+        writeInt(data, 0, (int) (value >>> 32));
+        writeInt(data, 4, (int) value);
+        return data;
+    }
+
+    private static long bytesToLong(byte[] bytes, int offset) {
+        return (long) readInt(bytes, offset) << 32 | (readInt(bytes, offset + 4) & 0xFFFFFFFFL);
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16 | (bytes[offset + 2] & 0xFF) << 8
+                | (bytes[offset + 3] & 0xFF);
+    }
+
+    private boolean isEmpty(byte[] data) {
+        return (data == null || data.length == 0);
+    }
+
+    /**
+     * 一个POJO类的Schema与类型标记
+     */
+    private static class PojoType {
+
+        private final Schema<Object> schema;
+
+        private final byte[] nameBytes;
+
+        @SuppressWarnings("unchecked")
+        private PojoType(Class<?> clazz) {
+            this.schema = (Schema<Object>) RuntimeSchema.getSchema(clazz);
+            this.nameBytes = clazz.getName().getBytes(StandardCharsets.UTF_8);
+        }
+
+        private Schema<Object> getSchema() {
+            return schema;
+        }
+
+        private byte[] getNameBytes() {
+            return nameBytes;
+        }
+
+    }
+
+    /**
+     * 拒绝加载RedisTypeAllowList以外的类
+     *
+     * 抛出的不是ClassNotFoundException，Protostuff不会再改用Class.forName重试
+     */
+    private static class AllowListClassLoader extends ClassLoader {
+
+        private AllowListClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!RedisTypeAllowList.isAllowed(name)) {
+                throw new SerializationException("不允许反序列化的类型 " + name);
+            }
+            return super.loadClass(name, resolve);
+        }
 
-        ProtoWrapper newMessage = schema.newMessage();
-        ProtostuffIOUtil.mergeFrom(bytes, newMessage, schema);
-        return newMessage.data;
     }
 
     private static class ProtoWrapper {
@@ -59,5 +386,3 @@ public class ProtostuffSerializer implements RedisSerializer<Object> {
     }
 
 }
-
-
@@ -0,0 +1,145 @@
+package com.spldeolin.beginningmind.core.redis;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+/**
+ * 一批在同一次pipeline中发送的Redis命令，由RedisCache.pipeline构造
+ *
+ * 每个命令返回一个Response，pipeline执行完毕后才能取值
+ *
+ * @author Deolin 2026-10-18
+ */
+public class RedisBatch {
+
+    private final RedisSerializer<String> keySerializer;
+
+    /**
+     * key -> 该key所属命名空间的value序列化器
+     */
+    private final Function<String, RedisSerializer<Object>> valueSerializers;
+
+    private final List<Consumer<RedisConnection>> commands = Lists.newArrayList();
+
+    private final List<Response<?>> responses = Lists.newArrayList();
+
+    /**
+     * 被写入、删除或修改过期时间的key，执行完毕后需要失效一级缓存
+     */
+    private final Set<String> touchedKeys = Sets.newLinkedHashSet();
+
+    RedisBatch(RedisSerializer<String> keySerializer, Function<String, RedisSerializer<Object>> valueSerializers) {
+        this.keySerializer = keySerializer;
+        this.valueSerializers = valueSerializers;
+    }
+
+    /**
+     * 创建一个有失效时间的缓存，如果key对应的缓存存在，则覆盖value和失效时间
+     */
+    public Response<Boolean> set(String key, Object value, long timeout, TimeUnit unit) {
+        byte[] rawKey = keySerializer.serialize(key);
+        byte[] rawValue = valueSerializers.apply(key).serialize(value);
+        touchedKeys.add(key);
+        return add(connection -> connection.stringCommands()
+                .set(rawKey, rawValue, Expiration.from(timeout, unit), SetOption.upsert()));
+    }
+
+    /**
+     * 获取缓存
+     */
+    public <T> Response<T> get(String key) {
+        byte[] rawKey = keySerializer.serialize(key);
+        return add(connection -> connection.stringCommands().get(rawKey));
+    }
+
+    /**
+     * 更新缓存的过期时间，key不存在则结果为false
+     */
+    public Response<Boolean> expire(String key, long timeout, TimeUnit unit) {
+        byte[] rawKey = keySerializer.serialize(key);
+        touchedKeys.add(key);
+        return add(connection -> connection.keyCommands().pExpire(rawKey, unit.toMillis(timeout)));
+    }
+
+    /**
+     * 删除一个缓存，结果为实际删除的个数
+     */
+    public Response<Long> delete(String key) {
+        byte[] rawKey = keySerializer.serialize(key);
+        touchedKeys.add(key);
+        return add(connection -> connection.keyCommands().del(rawKey));
+    }
+
+    public int size() {
+        return commands.size();
+    }
+
+    RedisCallback<Object> toCallback() {
+        return connection -> {
+            commands.forEach(command -> command.accept(connection));
+            return null;
+        };
+    }
+
+    Set<String> getTouchedKeys() {
+        return touchedKeys;
+    }
+
+    /**
+     * 将pipeline的结果按顺序分配给各个Response
+     */
+    void complete(List<Object> results) {
+        if (results.size() != responses.size()) {
+            throw new IllegalStateException(
+                    "pipeline结果个数与命令个数不一致 results=" + results.size() + " commands=" + responses.size());
+        }
+        for (int i = 0; i < results.size(); i++) {
+            responses.get(i).complete(results.get(i));
+        }
+    }
+
+    private <T> Response<T> add(Consumer<RedisConnection> command) {
+        Response<T> response = new Response<>();
+        commands.add(command);
+        responses.add(response);
+        return response;
+    }
+
+    /**
+     * pipeline中一个命令的结果
+     */
+    public static class Response<T> {
+
+        private boolean completed;
+
+        private T value;
+
+        @SuppressWarnings("unchecked")
+        private void complete(Object value) {
+            this.value = (T) value;
+            this.completed = true;
+        }
+
+        /**
+         * @throws IllegalStateException pipeline尚未执行时
+         */
+        public T get() {
+            if (!completed) {
+                throw new IllegalStateException("pipeline尚未执行");
+            }
+            return value;
+        }
+
+    }
+
+}
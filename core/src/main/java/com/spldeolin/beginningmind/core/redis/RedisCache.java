@@ -1,38 +1,96 @@
 package com.spldeolin.beginningmind.core.redis;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.spldeolin.beginningmind.core.util.Nulls;
 import com.spldeolin.beginningmind.core.util.Times;
+import lombok.extern.log4j.Log4j2;
+import com.spldeolin.beginningmind.core.vo.NearCacheStatsVO;
 
 /**
  * Redis缓存 管理
  *
  * 注释中的“缓存不存在”、“缓存失效”、“缓存被删除”三者等价
  *
+ * value按key所属的命名空间（core.redis-codec.namespaces）选用编解码器写入，读取时自动识别
+ *
+ * 启用core.near-cache时，get与multiGet优先读取进程内的一级缓存，写入与删除会通知所有节点失效一级缓存
+ *
  * @author Deolin 2018/08/10
  */
 @Component
+@Log4j2
 public class RedisCache {
 
+    /**
+     * SCAN命令默认的COUNT参数
+     */
+    private static final int DEFAULT_SCAN_COUNT = 1000;
+
+    /**
+     * XFetch的beta，大于1时更倾向于提前刷新
+     */
+    private static final double XFETCH_BETA = 1.0D;
+
+    private static final String LOAD_LOCK_SUFFIX = ":loading";
+
+    /**
+     * 缓存不存在时，等待其他节点计算的最长毫秒数
+     */
+    private static final long LOAD_LOCK_WAIT_MILLIS = 3000L;
+
     @Autowired
     private RedisTemplate<String, Object> redisTemplate;
 
+    @Autowired
+    private RedisNearCache nearCache;
+
+    @Autowired
+    private RedisCodecRegistry codecs;
+
+    @Autowired
+    private RedisReentrantLock redisReentrantLock;
+
+    /**
+     * 本节点正在调用loader的key
+     */
+    private final Map<String, CompletableFuture<Object>> loadingKeys = new ConcurrentHashMap<>();
+
     /**
      * 创建一个有失效时间的缓存
      *
      * 如果key对应的缓存存在，则覆盖value和失效时间
      */
     public <T> void set(String key, T value, long timeout, TimeUnit unit) {
-        redisTemplate.opsForValue().set(key, value, timeout, unit);
+        templateOf(key).opsForValue().set(key, value, timeout, unit);
+        nearCache.invalidate(key);
     }
 
     /**
@@ -43,7 +101,8 @@ public class RedisCache {
      * 如果key对应的缓存存在，则覆盖原缓存
      */
     public <T> void set(String key, T value) {
-        redisTemplate.opsForValue().set(key, value);
+        templateOf(key).opsForValue().set(key, value);
+        nearCache.invalidate(key);
     }
 
     /**
@@ -54,7 +113,24 @@ public class RedisCache {
      * 如果key对应的缓存存在，则什么都不发生，并返回false
      */
     public <T> boolean setIfAbsent(String key, T value) {
-        return redisTemplate.opsForValue().setIfAbsent(key, value);
+        boolean set = templateOf(key).opsForValue().setIfAbsent(key, value);
+        if (set) {
+            nearCache.invalidate(key);
+        }
+        return set;
+    }
+
+    /**
+     * 覆盖一个存在的缓存，并重新设置失效时间
+     *
+     * 如果key对应的缓存不存在，则什么都不发生，并返回false
+     */
+    public <T> boolean setIfPresent(String key, T value, long timeout, TimeUnit unit) {
+        boolean set = Boolean.TRUE.equals(templateOf(key).opsForValue().setIfPresent(key, value, timeout, unit));
+        if (set) {
+            nearCache.invalidate(key);
+        }
+        return set;
     }
 
     /**
@@ -63,11 +139,18 @@ public class RedisCache {
      * 缓存永不失效
      */
     public <T> void multiSet(Map<String, T> map) {
-        Map<String, T> newMap = Maps.newHashMap();
-        for (Map.Entry<String, T> entry : map.entrySet()) {
-            newMap.put(entry.getKey(), entry.getValue());
-        }
-        redisTemplate.opsForValue().multiSet(newMap);
+        Map<byte[], byte[]> raw = serialize(map);
+        redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.stringCommands().mSet(raw));
+        nearCache.invalidate(map.keySet());
+    }
+
+    /**
+     * 批量创建有失效时间的缓存
+     *
+     * 在同一次pipeline中发送，如果key对应的缓存存在，则覆盖value和失效时间
+     */
+    public <T> void multiSet(Map<String, T> map, long timeout, TimeUnit unit) {
+        pipeline(batch -> map.forEach((key, value) -> batch.set(key, value, timeout, unit)));
     }
 
     /**
@@ -78,11 +161,42 @@ public class RedisCache {
      * 如果任意一个key对应的缓存存在，则什么都不发生，并返回false
      */
     public <T> boolean multiSetIfAllAbsent(Map<String, T> maps) {
-        Map<String, T> newMap = Maps.newHashMap();
-        for (Map.Entry<String, T> entry : maps.entrySet()) {
-            newMap.put(entry.getKey(), entry.getValue());
+        Map<byte[], byte[]> raw = serialize(maps);
+        boolean set = Boolean.TRUE.equals(redisTemplate
+                .execute((RedisCallback<Boolean>) connection -> connection.stringCommands().mSetNX(raw)));
+        if (set) {
+            nearCache.invalidate(maps.keySet());
+        }
+        return set;
+    }
+
+    /**
+     * 在同一次pipeline中执行一批命令
+     * <pre>
+     * e.g.:
+     * List&lt;Response&lt;UserEntity&gt;&gt; users = Lists.newArrayList();
+     * redisCache.pipeline(batch -> {
+     *     batch.set("a", 1, 1, TimeUnit.MINUTES);
+     *     userIds.forEach(userId -> users.add(batch.get("user:" + userId)));
+     *     batch.delete("c");
+     * });
+     * users.get(0).get();
+     * </pre>
+     *
+     * @param commands 向RedisBatch中添加命令，命令的结果在本方法返回后才能通过Response取得
+     */
+    @SuppressWarnings("unchecked")
+    public void pipeline(Consumer<RedisBatch> commands) {
+        RedisBatch batch = new RedisBatch((RedisSerializer<String>) redisTemplate.getKeySerializer(),
+                codecs::serializerOf);
+        commands.accept(batch);
+        if (batch.size() == 0) {
+            return;
         }
-        return redisTemplate.opsForValue().multiSetIfAbsent(newMap);
+
+        List<Object> results = redisTemplate.executePipelined(batch.toCallback());
+        batch.complete(results);
+        nearCache.invalidate(batch.getTouchedKeys());
     }
 
     /**
@@ -94,7 +208,9 @@ public class RedisCache {
      */
     @SuppressWarnings("unchecked")
     public <T> T getAndSet(String key, T value) {
-        return (T) redisTemplate.opsForValue().getAndSet(key, value);
+        T old = (T) templateOf(key).opsForValue().getAndSet(key, value);
+        nearCache.invalidate(key);
+        return old;
     }
 
     /**
@@ -102,14 +218,127 @@ public class RedisCache {
      */
     @SuppressWarnings("unchecked")
     public <T> T get(String key) {
-        return (T) redisTemplate.opsForValue().get(key);
+        if (!nearCache.isEligible(key)) {
+            return (T) redisTemplate.opsForValue().get(key);
+        }
+
+        Object value = nearCache.get(key);
+        if (value == null) {
+            long generation = nearCache.generation();
+            value = redisTemplate.opsForValue().get(key);
+            nearCache.put(key, value, generation);
+        }
+        return (T) value;
+    }
+
+    /**
+     * 获取缓存，不存在时调用loader计算并写入，相当于getOrLoad(key, timeout, unit, loader, false)
+     */
+    public <T> T getOrLoad(String key, long timeout, TimeUnit unit, Supplier<T> loader) {
+        return getOrLoad(key, timeout, unit, loader, false);
+    }
+
+    /**
+     * 获取缓存，不存在时调用loader计算并写入
+     * <pre>
+     * 本节点内同一个key同时只会有一个线程调用loader，其他线程等待并共享它的结果
+     * 缓存临近失效时，按XFetch算法以一定概率提前重新计算（计算越慢、越临近失效，概率越大），
+     * 提前计算期间其他线程直接返回当前值
+     * lockAcrossNodes为true时，还会以分布式锁保证整个集群同时只有一个节点调用loader
+     * 写入的是LoadedValue，因此这个key只应通过本方法读取
+     * loader返回null时不写入缓存
+     * </pre>
+     */
+    public <T> T getOrLoad(String key, long timeout, TimeUnit unit, Supplier<T> loader, boolean lockAcrossNodes) {
+        LoadedValue<T> cached = get(key);
+        if (cached != null && !shouldRefreshEarly(cached)) {
+            return cached.getValue();
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> loading = loadingKeys.putIfAbsent(key, mine);
+        if (loading != null) {
+            // 已经有线程在计算，有旧值时不等待
+            return cached != null ? cached.getValue() : join(loading);
+        }
+        try {
+            // 第一次读取与占位之间，其他线程可能刚刚完成计算并释放了占位
+            LoadedValue<T> latest = get(key);
+            if (isNewer(latest, cached)) {
+                mine.complete(latest.getValue());
+                return latest.getValue();
+            }
+            T value = lockAcrossNodes ? loadWithLock(key, timeout, unit, loader, cached)
+                    : load(key, timeout, unit, loader);
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadingKeys.remove(key, mine);
+        }
     }
 
     /**
      * 查找匹配的key
+     *
+     * 基于SCAN，不会像KEYS那样阻塞Redis，但结果会全部加载到内存中，key较多时请使用scanKeys
      */
     public Set<String> searchKeys(String pattern) {
-        return redisTemplate.keys(pattern);
+        try (Stream<String> keys = scanKeys(pattern, DEFAULT_SCAN_COUNT)) {
+            return keys.collect(Collectors.toSet());
+        }
+    }
+
+    /**
+     * 以SCAN游标惰性地遍历匹配的key
+     * <pre>
+     * 遍历期间被修改的key可能重复出现或不出现（SCAN语义）
+     * 返回的Stream占用一个Redis连接，必须关闭：
+     * try (Stream&lt;String&gt; keys = redisCache.scanKeys("user:*", 500)) {
+     *     keys.forEach(...);
+     * }
+     * </pre>
+     *
+     * @param pattern 匹配模式
+     * @param batchSize 每次SCAN的COUNT参数
+     */
+    @SuppressWarnings("unchecked")
+    public Stream<String> scanKeys(String pattern, int batchSize) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(batchSize).build();
+        Cursor<byte[]> cursor = redisTemplate
+                .executeWithStickyConnection((RedisCallback<Cursor<byte[]>>) connection -> connection.scan(options));
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) redisTemplate.getKeySerializer();
+
+        Spliterator<byte[]> spliterator = Spliterators.spliteratorUnknownSize(cursor, Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).map(keySerializer::deserialize).onClose(() -> {
+            try {
+                cursor.close();
+            } catch (IOException e) {
+                log.error("关闭SCAN游标失败", e);
+            }
+        });
+    }
+
+    /**
+     * 删除所有匹配的缓存
+     *
+     * 以SCAN遍历，每batchSize个key用UNLINK删除一次（由Redis在后台线程回收内存）
+     *
+     * @return 实际删除的个数
+     */
+    public long deleteByPattern(String pattern, int batchSize) {
+        long deleted = 0L;
+        try (Stream<String> keys = scanKeys(pattern, batchSize)) {
+            Iterator<List<String>> batches = Iterators.partition(keys.iterator(), batchSize);
+            while (batches.hasNext()) {
+                List<String> batch = batches.next();
+                deleted += Nulls.toZero(redisTemplate.unlink(batch));
+                nearCache.invalidate(batch);
+            }
+        }
+        return deleted;
     }
 
     /**
@@ -117,12 +346,52 @@ public class RedisCache {
      */
     @SuppressWarnings("unchecked")
     public <T> List<T> multiGet(Collection<String> keys) {
-        List<Object> objects = redisTemplate.opsForValue().multiGet(keys);
+        if (!nearCache.isEnabled()) {
+            List<Object> objects = redisTemplate.opsForValue().multiGet(keys);
+            List<T> result = Lists.newArrayList();
+            objects.forEach(obj -> result.add((T) obj));
+            return result;
+        }
+
+        // 一级缓存命中的部分直接使用，其余部分一次性从Redis获取
+        List<String> keyList = Lists.newArrayList(keys);
+        List<Object> values = Lists.newArrayListWithCapacity(keyList.size());
+        List<Integer> missIndexes = Lists.newArrayList();
+        for (int i = 0; i < keyList.size(); i++) {
+            String key = keyList.get(i);
+            Object value = nearCache.isEligible(key) ? nearCache.get(key) : null;
+            values.add(value);
+            if (value == null) {
+                missIndexes.add(i);
+            }
+        }
+        if (missIndexes.size() > 0) {
+            long generation = nearCache.generation();
+            List<String> missKeys = Lists.newArrayListWithCapacity(missIndexes.size());
+            missIndexes.forEach(i -> missKeys.add(keyList.get(i)));
+            List<Object> missValues = redisTemplate.opsForValue().multiGet(missKeys);
+            for (int i = 0; i < missIndexes.size(); i++) {
+                String key = missKeys.get(i);
+                Object value = missValues.get(i);
+                values.set(missIndexes.get(i), value);
+                if (nearCache.isEligible(key)) {
+                    nearCache.put(key, value, generation);
+                }
+            }
+        }
+
         List<T> result = Lists.newArrayList();
-        objects.forEach(obj -> result.add((T) obj));
+        values.forEach(obj -> result.add((T) obj));
         return result;
     }
 
+    /**
+     * 一级缓存各key前缀的命中、未命中、淘汰统计
+     */
+    public Map<String, NearCacheStatsVO> nearCacheStats() {
+        return nearCache.stats();
+    }
+
     /**
      * 获取缓存的剩余失效时间
      *
@@ -145,7 +414,9 @@ public class RedisCache {
      * key不存在则返回false
      */
     public Boolean updateExpire(String key, long timeout, TimeUnit unit) {
-        return redisTemplate.expire(key, timeout, unit);
+        Boolean updated = redisTemplate.expire(key, timeout, unit);
+        nearCache.invalidate(key);
+        return updated;
     }
 
     /**
@@ -154,7 +425,9 @@ public class RedisCache {
      * key不存在则返回false
      */
     public Boolean updateExpire(String key, LocalDateTime localDateTime) {
-        return redisTemplate.expireAt(key, Times.toDate(localDateTime));
+        Boolean updated = redisTemplate.expireAt(key, Times.toDate(localDateTime));
+        nearCache.invalidate(key);
+        return updated;
     }
 
     /**
@@ -164,6 +437,7 @@ public class RedisCache {
      */
     public void delete(String key) {
         redisTemplate.delete(key);
+        nearCache.invalidate(key);
     }
 
     /**
@@ -173,6 +447,7 @@ public class RedisCache {
      */
     public void delete(Collection<String> keys) {
         redisTemplate.delete(keys);
+        nearCache.invalidate(keys);
     }
 
     /**
@@ -184,4 +459,109 @@ public class RedisCache {
         return redisTemplate.persist(key);
     }
 
-}
\ No newline at end of file
+    private <T> T loadWithLock(String key, long timeout, TimeUnit unit, Supplier<T> loader, LoadedValue<T> cached) {
+        String lockKey = key + LOAD_LOCK_SUFFIX;
+        // 提前刷新时不等待，其他节点正在计算就继续使用旧值
+        long waitMillis = cached == null ? LOAD_LOCK_WAIT_MILLIS : 0L;
+        long fencingToken;
+        try {
+            fencingToken = redisReentrantLock.tryLock(lockKey, waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待分布式锁时被中断 " + lockKey, e);
+        }
+
+        if (fencingToken == RedisReentrantLock.NOT_ACQUIRED) {
+            if (cached != null) {
+                return cached.getValue();
+            }
+            // 等待超时，其他节点可能已经写入；仍然没有时降级为本节点自己计算
+            LoadedValue<T> loaded = get(key);
+            return loaded != null ? loaded.getValue() : load(key, timeout, unit, loader);
+        }
+        try {
+            LoadedValue<T> loaded = get(key);
+            if (loaded != null && (cached == null || !loaded.getExpireAt().equals(cached.getExpireAt()))) {
+                // 等待期间其他节点已经计算完毕
+                return loaded.getValue();
+            }
+            return load(key, timeout, unit, loader);
+        } finally {
+            redisReentrantLock.unlock(lockKey);
+        }
+    }
+
+    private <T> T load(String key, long timeout, TimeUnit unit, Supplier<T> loader) {
+        long start = System.nanoTime();
+        T value = loader.get();
+        if (value == null) {
+            return null;
+        }
+        LoadedValue<T> loaded = new LoadedValue<>();
+        loaded.setValue(value);
+        loaded.setDeltaMillis(Math.max(1L, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        loaded.setExpireAt(System.currentTimeMillis() + unit.toMillis(timeout));
+        set(key, loaded, timeout, unit);
+        return value;
+    }
+
+    /**
+     * XFetch：now - delta * beta * ln(random) >= expireAt 时提前刷新
+     */
+    /**
+     * latest是否是cached之后重新写入的值
+     */
+    private boolean isNewer(LoadedValue<?> latest, LoadedValue<?> cached) {
+        if (latest == null) {
+            return false;
+        }
+        if (cached == null) {
+            return true;
+        }
+        return latest.getExpireAt() != null && cached.getExpireAt() != null
+                && latest.getExpireAt() > cached.getExpireAt();
+    }
+
+    private boolean shouldRefreshEarly(LoadedValue<?> cached) {
+        if (cached.getDeltaMillis() == null || cached.getExpireAt() == null) {
+            return false;
+        }
+        double random = ThreadLocalRandom.current().nextDouble();
+        double gap = -cached.getDeltaMillis() * XFETCH_BETA * Math.log(random);
+        return System.currentTimeMillis() + gap >= cached.getExpireAt();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T join(CompletableFuture<Object> loading) {
+        try {
+            return (T) loading.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * key所属命名空间的RedisTemplate
+     */
+    private RedisTemplate<String, Object> templateOf(String key) {
+        String codec = codecs.codecOf(key);
+        return codec.equals(codecs.getDefaultCodec()) ? redisTemplate : codecs.template(codec);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Map<byte[], byte[]> serialize(Map<String, T> map) {
+        RedisSerializer<String> keySerializer = (RedisSerializer<String>) redisTemplate.getKeySerializer();
+        Map<byte[], byte[]> raw = Maps.newLinkedHashMap();
+        map.forEach((key, value) -> raw
+                .put(keySerializer.serialize(key), codecs.serializerOf(key).serialize(value)));
+        return raw;
+    }
+
+}
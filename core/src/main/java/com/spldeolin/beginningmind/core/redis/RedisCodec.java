@@ -0,0 +1,24 @@
+package com.spldeolin.beginningmind.core.redis;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Redis value的编解码器
+ *
+ * 声明为Bean即可被RedisCodecRegistry发现，通过core.redis-codec按名称为RedisTemplate、Session或key前缀选用
+ *
+ * @author Deolin 2026-10-18
+ */
+public interface RedisCodec extends RedisSerializer<Object> {
+
+    /**
+     * 配置中引用的名称
+     */
+    String getName();
+
+    /**
+     * 数据是否由本编解码器编码，用于读取时自动识别，因此各编解码器的输出需带有可区分的头部
+     */
+    boolean isEncodedBy(byte[] bytes);
+
+}
@@ -0,0 +1,201 @@
+package com.spldeolin.beginningmind.core.redis;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.stereotype.Component;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.spldeolin.beginningmind.core.CoreProperties;
+import com.spldeolin.beginningmind.core.CoreProperties.RedisCodecProp;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 所有RedisCodec的注册表
+ *
+ * 写入时按编解码器名称或key前缀选用编解码器；读取时根据数据头部在配置引用的编解码器
+ * （default-codec、session-codec、namespaces）之间自动识别，未被引用的编解码器不参与读取；
+ * 无法识别的数据交给protostuff（兼容最早的包装类格式）
+ * 切换编解码器后，旧数据只有在旧编解码器仍被引用时才可读取
+ *
+ * @author Deolin 2026-10-18
+ */
+@Component
+@Log4j2
+public class RedisCodecRegistry {
+
+    @Autowired
+    private CoreProperties coreProperties;
+
+    @Autowired
+    private List<RedisCodec> codecs;
+
+    @Autowired
+    private RedisConnectionFactory connectionFactory;
+
+    private final Map<String, RedisCodec> codecsByName = Maps.newHashMap();
+
+    /**
+     * 配置引用的编解码器，读取时只在其中识别
+     */
+    private final List<RedisCodec> detectableCodecs = Lists.newArrayList();
+
+    private RedisCodec fallbackCodec;
+
+    private String defaultCodec;
+
+    private String sessionCodec;
+
+    /**
+     * key前缀 -> 编解码器名称，按前缀长度降序
+     */
+    private final List<Map.Entry<String, String>> namespaces = Lists.newArrayList();
+
+    private final Map<String, RedisSerializer<Object>> serializers = new ConcurrentHashMap<>();
+
+    private final Map<String, RedisTemplate<String, Object>> templates = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        codecs.forEach(codec -> codecsByName.put(codec.getName(), codec));
+
+        RedisCodecProp props = coreProperties.getRedisCodec();
+        defaultCodec = ProtostuffSerializer.NAME;
+        sessionCodec = ProtostuffSerializer.NAME;
+        if (props != null) {
+            if (props.getDefaultCodec() != null) {
+                defaultCodec = props.getDefaultCodec();
+            }
+            if (props.getSessionCodec() != null) {
+                sessionCodec = props.getSessionCodec();
+            }
+            if (props.getNamespaces() != null) {
+                namespaces.addAll(props.getNamespaces().entrySet());
+            }
+        }
+        namespaces.sort(Comparator.comparingInt((Map.Entry<String, String> e) -> e.getKey().length()).reversed());
+
+        Set<String> referenced = Sets.newLinkedHashSet();
+        referenced.add(defaultCodec);
+        referenced.add(sessionCodec);
+        namespaces.forEach(namespace -> referenced.add(namespace.getValue()));
+        referenced.forEach(name -> detectableCodecs.add(codec(name)));
+        fallbackCodec = codecsByName.getOrDefault(ProtostuffSerializer.NAME, codec(defaultCodec));
+        log.info("Redis codecs={} detectable={} default={} session={} namespaces={}", codecsByName.keySet(),
+                referenced, defaultCodec, sessionCodec, namespaces);
+    }
+
+    public String getDefaultCodec() {
+        return defaultCodec;
+    }
+
+    public String getSessionCodec() {
+        return sessionCodec;
+    }
+
+    /**
+     * key所属命名空间的编解码器名称，不属于任何命名空间时返回默认编解码器
+     */
+    public String codecOf(String key) {
+        for (Map.Entry<String, String> namespace : namespaces) {
+            if (key.startsWith(namespace.getKey())) {
+                return namespace.getValue();
+            }
+        }
+        return defaultCodec;
+    }
+
+    /**
+     * 以指定编解码器写入、自动识别读取的序列化器
+     */
+    public RedisSerializer<Object> serializer(String codecName) {
+        return serializers.computeIfAbsent(codecName, name -> new DetectingSerializer(codec(name)));
+    }
+
+    /**
+     * key所属命名空间的序列化器
+     */
+    public RedisSerializer<Object> serializerOf(String key) {
+        return serializer(codecOf(key));
+    }
+
+    /**
+     * 以指定编解码器写入value与hash value的RedisTemplate，同一编解码器共用一个实例
+     */
+    public RedisTemplate<String, Object> template(String codecName) {
+        return templates.computeIfAbsent(codecName, name -> {
+            RedisTemplate<String, Object> template = newTemplate(name);
+            template.afterPropertiesSet();
+            return template;
+        });
+    }
+
+    /**
+     * 创建一个新的RedisTemplate，key为字符串，开启事务支持
+     */
+    public RedisTemplate<String, Object> newTemplate(String codecName) {
+        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setEnableTransactionSupport(true);
+
+        StringRedisSerializer keySerializer = new StringRedisSerializer();
+        redisTemplate.setKeySerializer(keySerializer);
+        redisTemplate.setHashKeySerializer(keySerializer);
+
+        RedisSerializer<Object> valueSerializer = serializer(codecName);
+        redisTemplate.setValueSerializer(valueSerializer);
+        redisTemplate.setHashValueSerializer(valueSerializer);
+        return redisTemplate;
+    }
+
+    private RedisCodec codec(String name) {
+        RedisCodec codec = codecsByName.get(name);
+        if (codec == null) {
+            throw new IllegalArgumentException("不存在的Redis编解码器 " + name + "，可选：" + codecsByName.keySet());
+        }
+        return codec;
+    }
+
+    private Object decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        for (RedisCodec codec : detectableCodecs) {
+            if (codec.isEncodedBy(bytes)) {
+                return codec.deserialize(bytes);
+            }
+        }
+        return fallbackCodec.deserialize(bytes);
+    }
+
+    private class DetectingSerializer implements RedisSerializer<Object> {
+
+        private final RedisCodec encoder;
+
+        private DetectingSerializer(RedisCodec encoder) {
+            this.encoder = encoder;
+        }
+
+        @Override
+        public byte[] serialize(Object o) throws SerializationException {
+            return encoder.serialize(o);
+        }
+
+        @Override
+        public Object deserialize(byte[] bytes) throws SerializationException {
+            return decode(bytes);
+        }
+
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.spldeolin.beginningmind.core.redis;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.ClientOptions.DisconnectedBehavior;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.event.connection.ConnectionActivatedEvent;
+import io.lettuce.core.event.connection.ConnectionDeactivatedEvent;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 直接使用Lettuce的Redis连接（不经过RedisTemplate的序列化）
+ * <pre>
+ * Lettuce的连接是线程安全的，并发的命令会在同一个共享连接上流水线化，适合SET、EVALSHA等非阻塞命令，提供同步与异步两种API
+ * 不提供MULTI/EXEC、阻塞命令等需要独占连接的用法，原子操作以Lua脚本实现
+ * 断线后自动重连，断线期间的命令立即失败而不是堆积在内存中
+ * </pre>
+ *
+ * @author Deolin 2026-10-18
+ */
+@Component
+@Log4j2
+public class RedisConnectionProvider {
+
+    @Autowired
+    private RedisProperties redisProperties;
+
+    private RedisClient client;
+
+    private volatile StatefulRedisConnection<String, String> shared;
+
+    @PostConstruct
+    public void init() {
+        RedisURI uri = RedisURI.create(redisProperties.getHost(), redisProperties.getPort());
+        uri.setDatabase(redisProperties.getDatabase());
+        uri.setSsl(redisProperties.isSsl());
+        if (StringUtils.hasText(redisProperties.getPassword())) {
+            uri.setPassword(redisProperties.getPassword());
+        }
+        if (redisProperties.getTimeout() != null) {
+            uri.setTimeout(redisProperties.getTimeout());
+        }
+
+        client = RedisClient.create(uri);
+        client.setOptions(ClientOptions.builder().autoReconnect(true).pingBeforeActivateConnection(true)
+                .disconnectedBehavior(DisconnectedBehavior.REJECT_COMMANDS).build());
+        client.getResources().eventBus().get().subscribe(event -> {
+            if (event instanceof ConnectionDeactivatedEvent) {
+                log.warn("Redis连接断开，等待自动重连 {}", event);
+            } else if (event instanceof ConnectionActivatedEvent) {
+                log.info("Redis连接已建立 {}", event);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (shared != null) {
+            shared.close();
+        }
+        client.shutdown();
+    }
+
+    /**
+     * 共享连接的同步API
+     */
+    public RedisCommands<String, String> sync() {
+        return sharedConnection().sync();
+    }
+
+    /**
+     * 共享连接的异步API
+     */
+    public RedisAsyncCommands<String, String> async() {
+        return sharedConnection().async();
+    }
+
+    /**
+     * 以EVALSHA执行脚本，Redis中没有该脚本时（如Redis重启后）以EVAL执行一次，EVAL会同时缓存脚本
+     */
+    public <T> T eval(LuaScript script, ScriptOutputType type, String[] keys, String... args) {
+        RedisCommands<String, String> commands = sync();
+        try {
+            return commands.evalsha(script.getSha1(), type, keys, args);
+        } catch (RedisCommandExecutionException e) {
+            if (!isNoScript(e)) {
+                throw e;
+            }
+            return commands.eval(script.getText(), type, keys, args);
+        }
+    }
+
+    /**
+     * eval的异步版本
+     */
+    public <T> CompletableFuture<T> evalAsync(LuaScript script, ScriptOutputType type, String[] keys,
+            String... args) {
+        RedisAsyncCommands<String, String> commands = async();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        commands.<T>evalsha(script.getSha1(), type, keys, args).whenComplete((value, e) -> {
+            if (e == null) {
+                result.complete(value);
+            } else if (isNoScript(e)) {
+                commands.<T>eval(script.getText(), type, keys, args).whenComplete((retried, retryE) -> {
+                    if (retryE == null) {
+                        result.complete(retried);
+                    } else {
+                        result.completeExceptionally(retryE);
+                    }
+                });
+            } else {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 断线后由Lettuce在原连接上自动重连，因此共享连接只需建立一次
+     */
+    private StatefulRedisConnection<String, String> sharedConnection() {
+        StatefulRedisConnection<String, String> connection = shared;
+        if (connection != null) {
+            return connection;
+        }
+        synchronized (this) {
+            if (shared == null) {
+                shared = client.connect();
+            }
+            return shared;
+        }
+    }
+
+    private static boolean isNoScript(Throwable e) {
+        if (e instanceof CompletionException && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e instanceof RedisCommandExecutionException && e.getMessage() != null && e.getMessage()
+                .startsWith("NOSCRIPT");
+    }
+
+}
@@ -1,21 +1,26 @@
 package com.spldeolin.beginningmind.core.redis;
 
+import java.util.concurrent.CompletableFuture;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import io.lettuce.core.ScriptOutputType;
 import io.lettuce.core.SetArgs;
-import io.lettuce.core.api.sync.RedisCommands;
 
 /**
  * 基于Redis的分布式锁（不可重入）
  *
+ * 需要重入、自动续约或等待锁时，使用RedisReentrantLock
+ *
  * @author Deolin 2018/09/27
  */
 @Component
 public class RedisLock {
 
+    private static final LuaScript RELEASE_SCRIPT = new LuaScript(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end");
+
     @Autowired
-    private RedisCommands<String, String> redisCommands;
+    private RedisConnectionProvider connectionProvider;
 
     /**
      * 上分布式锁
@@ -26,7 +31,8 @@ public class RedisLock {
      * @return 是否成功获取锁
      */
     public boolean lock(String lockKey, String threadValue, int expireMilli) {
-        return "OK".equals(redisCommands.set(lockKey, threadValue, SetArgs.Builder.nx().px(expireMilli)));
+        String reply = connectionProvider.sync().set(lockKey, threadValue, SetArgs.Builder.nx().px(expireMilli));
+        return "OK".equals(reply);
     }
 
     /**
@@ -37,9 +43,17 @@ public class RedisLock {
      * @return 是否成功释放了锁
      */
     public boolean release(String lockKey, String threadValue) {
-        String script = "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1])"
-                + " else return 0 end";
-        return redisCommands.eval(script, ScriptOutputType.BOOLEAN, new String[]{lockKey}, threadValue);
+        return connectionProvider.eval(RELEASE_SCRIPT, ScriptOutputType.BOOLEAN, new String[]{lockKey}, threadValue);
+    }
+
+    /**
+     * 异步释放分布式锁，不阻塞调用者
+     *
+     * @return 是否成功释放了锁
+     */
+    public CompletableFuture<Boolean> releaseAsync(String lockKey, String threadValue) {
+        return connectionProvider
+                .evalAsync(RELEASE_SCRIPT, ScriptOutputType.BOOLEAN, new String[]{lockKey}, threadValue);
     }
 
 }
@@ -0,0 +1,261 @@
+package com.spldeolin.beginningmind.core.redis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.Maps;
+import com.spldeolin.beginningmind.core.CoreProperties;
+import com.spldeolin.beginningmind.core.CoreProperties.NearCacheProp;
+import com.spldeolin.beginningmind.core.util.Nulls;
+import com.spldeolin.beginningmind.core.vo.NearCacheStatsVO;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * RedisCache的进程内一级缓存
+ *
+ * 基于Caffeine（W-TinyLFU淘汰），容量与存活时间有界，只缓存非null值
+ *
+ * 保存的是以RedisTemplate的值序列化器编码的字节，每次命中都解码出新的对象，调用方修改取到的对象不会影响其他调用方
+ *
+ * 任意节点写入或删除key时，通过Redis pub/sub通知所有节点失效对应的一级缓存
+ *
+ * @author Deolin 2026-10-18
+ */
+@Component
+@Log4j2
+public class RedisNearCache implements MessageListener {
+
+    /**
+     * 失效通知的频道
+     */
+    public static final String INVALIDATE_CHANNEL = "beginningMind:nearCache:invalidate";
+
+    /**
+     * 一条失效通知中多个key的分隔符（key中不应含有换行符）
+     */
+    private static final char KEY_SEPARATOR = '\n';
+
+    private static final String OTHERS_PREFIX = "";
+
+    @Autowired
+    private CoreProperties coreProperties;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private boolean enabled;
+
+    private List<String> prefixes;
+
+    private Cache<String, byte[]> cache;
+
+    private RedisSerializer<Object> serializer;
+
+    /**
+     * 每次失效都自增，读取Redis前后不一致时放弃回填，避免回填已失效的旧值
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * key前缀，统计
+     */
+    private final Map<String, PrefixStats> statsEachPrefix = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    public void init() {
+        NearCacheProp props = coreProperties.getNearCache();
+        enabled = props != null && Boolean.TRUE.equals(props.getEnabled());
+        if (!enabled) {
+            return;
+        }
+
+        prefixes = Nulls.toEmpty(props.getPrefixes());
+        serializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        cache = Caffeine.newBuilder()
+                .maximumSize(props.getMaximumSize())
+                .expireAfterWrite(props.getExpireSeconds(), TimeUnit.SECONDS)
+                .removalListener((String key, byte[] value, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        statsOf(key).evictions.increment();
+                    }
+                }).build();
+        log.info("Redis near cache enabled. prefixes={}", prefixes);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * key是否可以进入一级缓存
+     */
+    public boolean isEligible(String key) {
+        return enabled && prefixOf(key) != null;
+    }
+
+    /**
+     * 当前的失效代数，读取Redis前获取，回填时传入
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * 从一级缓存获取，同时记录命中与未命中
+     *
+     * @return 未命中时返回null
+     */
+    public Object get(String key) {
+        byte[] bytes = cache.getIfPresent(key);
+        PrefixStats stats = statsOf(key);
+        if (bytes == null) {
+            stats.misses.increment();
+            return null;
+        }
+        stats.hits.increment();
+        return serializer.deserialize(bytes);
+    }
+
+    /**
+     * 回填一级缓存
+     *
+     * @param generation 读取Redis前获取的失效代数，期间发生过失效则放弃回填
+     */
+    public void put(String key, Object value, long generation) {
+        if (value == null) {
+            return;
+        }
+        cache.put(key, serializer.serialize(value));
+        if (this.generation.get() != generation) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * 失效本节点与其他节点的一级缓存
+     */
+    public void invalidate(String key) {
+        if (!enabled) {
+            return;
+        }
+        invalidateLocally(key);
+        publish(key);
+    }
+
+    /**
+     * 失效本节点与其他节点的一级缓存
+     */
+    public void invalidate(Collection<String> keys) {
+        if (!enabled || keys.isEmpty()) {
+            return;
+        }
+        keys.forEach(this::invalidateLocally);
+        publish(Joiner.on(KEY_SEPARATOR).join(keys));
+    }
+
+    /**
+     * 收到其他节点（包括本节点）的失效通知
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (!enabled) {
+            return;
+        }
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        Splitter.on(KEY_SEPARATOR).split(body).forEach(this::invalidateLocally);
+    }
+
+    /**
+     * 各key前缀的命中、未命中、淘汰统计
+     */
+    public Map<String, NearCacheStatsVO> stats() {
+        Map<String, NearCacheStatsVO> result = Maps.newTreeMap();
+        statsEachPrefix.forEach((prefix, stats) -> {
+            NearCacheStatsVO vo = new NearCacheStatsVO();
+            long hits = stats.hits.sum();
+            long misses = stats.misses.sum();
+            vo.setHits(hits);
+            vo.setMisses(misses);
+            vo.setEvictions(stats.evictions.sum());
+            vo.setHitRate(hits + misses == 0 ? 0D : (double) hits / (hits + misses));
+            result.put(prefix, vo);
+        });
+        return result;
+    }
+
+    private void invalidateLocally(String key) {
+        generation.incrementAndGet();
+        cache.invalidate(key);
+    }
+
+    private void publish(String body) {
+        byte[] channel = INVALIDATE_CHANNEL.getBytes(StandardCharsets.UTF_8);
+        byte[] message = body.getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, message));
+        } catch (Exception e) {
+            // 通知失败时，其他节点的一级缓存最迟在expireSeconds后失效
+            log.error("发布一级缓存失效通知失败", e);
+        }
+    }
+
+    /**
+     * 未配置prefixes时，以第一个冒号之前的部分作为前缀
+     *
+     * @return key所属的前缀，不进入一级缓存时返回null
+     */
+    private String prefixOf(String key) {
+        if (prefixes.isEmpty()) {
+            int colon = key.indexOf(':');
+            return colon < 0 ? OTHERS_PREFIX : key.substring(0, colon);
+        }
+        for (String prefix : prefixes) {
+            if (key.startsWith(prefix)) {
+                return prefix;
+            }
+        }
+        return null;
+    }
+
+    private PrefixStats statsOf(String key) {
+        String prefix = prefixOf(key);
+        if (prefix == null) {
+            prefix = OTHERS_PREFIX;
+        }
+        PrefixStats stats = statsEachPrefix.get(prefix);
+        if (stats == null) {
+            stats = statsEachPrefix.computeIfAbsent(prefix, p -> new PrefixStats());
+        }
+        return stats;
+    }
+
+    private static class PrefixStats {
+
+        private final LongAdder hits = new LongAdder();
+
+        private final LongAdder misses = new LongAdder();
+
+        private final LongAdder evictions = new LongAdder();
+
+    }
+
+}
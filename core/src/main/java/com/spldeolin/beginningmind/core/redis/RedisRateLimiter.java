@@ -0,0 +1,159 @@
+package com.spldeolin.beginningmind.core.redis;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.lettuce.core.ScriptOutputType;
+
+/**
+ * 基于Redis的限流器，每种算法都是一个原子的Lua脚本，时间取自Redis服务器，不受各节点时钟偏差影响
+ * <pre>
+ * 滑动窗口：任意windowMillis内最多放行limit次
+ * 令牌桶：容量为capacity，每periodMillis匀速补满一次，允许突发
+ * </pre>
+ * 被Redis拒绝后，在建议的重试时间内本节点直接拒绝同一个key，不再访问Redis
+ *
+ * @author Deolin 2026-10-18
+ */
+@Component
+public class RedisRateLimiter {
+
+    /**
+     * 放行
+     */
+    public static final long PERMITTED = 0L;
+
+    /**
+     * 放行时返回0，否则返回距离下一次可能放行的毫秒数
+     */
+    private static final LuaScript SLIDING_WINDOW_SCRIPT = new LuaScript("redis.replicate_commands()"
+            + " local t = redis.call('time')"
+            + " local now = t[1] * 1000 + math.floor(t[2] / 1000)"
+            + " local window = tonumber(ARGV[2])"
+            + " redis.call('zremrangebyscore', KEYS[1], '-inf', now - window)"
+            + " if redis.call('zcard', KEYS[1]) < tonumber(ARGV[1]) then"
+            + "   redis.call('zadd', KEYS[1], now, ARGV[3])"
+            + "   redis.call('pexpire', KEYS[1], window)"
+            + "   return 0"
+            + " end"
+            + " local oldest = redis.call('zrange', KEYS[1], 0, 0, 'withscores')"
+            + " local wait = tonumber(oldest[2]) + window - now"
+            + " if wait < 1 then wait = 1 end"
+            + " return wait");
+
+    /**
+     * 放行时返回0，否则返回攒够令牌所需的毫秒数
+     */
+    private static final LuaScript TOKEN_BUCKET_SCRIPT = new LuaScript("redis.replicate_commands()"
+            + " local t = redis.call('time')"
+            + " local now = t[1] * 1000 + math.floor(t[2] / 1000)"
+            + " local capacity = tonumber(ARGV[1])"
+            + " local period = tonumber(ARGV[2])"
+            + " local permits = tonumber(ARGV[3])"
+            + " local rate = capacity / period"
+            + " local bucket = redis.call('hmget', KEYS[1], 'tokens', 'ts')"
+            + " local tokens = tonumber(bucket[1])"
+            + " local ts = tonumber(bucket[2])"
+            + " if tokens == nil then tokens = capacity ts = now end"
+            + " tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)"
+            + " local wait = 0"
+            + " if tokens >= permits then tokens = tokens - permits"
+            + " else wait = math.ceil((permits - tokens) / rate) end"
+            + " redis.call('hmset', KEYS[1], 'tokens', tokens, 'ts', now)"
+            + " redis.call('pexpire', KEYS[1], period)"
+            + " return wait");
+
+    @Autowired
+    private RedisConnectionProvider connectionProvider;
+
+    /**
+     * key -> 本节点在此时刻（System.nanoTime）之前直接拒绝
+     */
+    private final Cache<String, Long> rejectUntil = Caffeine.newBuilder().maximumSize(100_000)
+            .expireAfterWrite(1, TimeUnit.MINUTES).build();
+
+    private final LongAdder localRejections = new LongAdder();
+
+    private final LongAdder redisRejections = new LongAdder();
+
+    /**
+     * 滑动窗口限流
+     *
+     * @return 放行时返回PERMITTED，否则返回建议的重试等待毫秒数
+     */
+    public long acquireSlidingWindow(String key, int limit, long windowMillis) {
+        long wait = rejectedLocally(key);
+        if (wait > 0) {
+            return wait;
+        }
+        Long reply = connectionProvider.eval(SLIDING_WINDOW_SCRIPT, ScriptOutputType.INTEGER, new String[]{key},
+                String.valueOf(limit), String.valueOf(windowMillis), UUID.randomUUID().toString());
+        return afterRedis(key, reply);
+    }
+
+    /**
+     * 令牌桶限流
+     *
+     * @param capacity 桶的容量，即允许的最大突发
+     * @param periodMillis 从空桶到满桶所需的毫秒数
+     * @param permits 本次消耗的令牌数，不能大于capacity
+     * @return 放行时返回PERMITTED，否则返回建议的重试等待毫秒数
+     */
+    public long acquireTokenBucket(String key, int capacity, long periodMillis, int permits) {
+        if (permits > capacity) {
+            throw new IllegalArgumentException("permits不能大于capacity permits=" + permits + " capacity=" + capacity);
+        }
+        long wait = rejectedLocally(key);
+        if (wait > 0) {
+            return wait;
+        }
+        Long reply = connectionProvider.eval(TOKEN_BUCKET_SCRIPT, ScriptOutputType.INTEGER, new String[]{key},
+                String.valueOf(capacity), String.valueOf(periodMillis), String.valueOf(permits));
+        return afterRedis(key, reply);
+    }
+
+    /**
+     * 本节点直接拒绝的次数
+     */
+    public long getLocalRejections() {
+        return localRejections.sum();
+    }
+
+    /**
+     * 由Redis拒绝的次数
+     */
+    public long getRedisRejections() {
+        return redisRejections.sum();
+    }
+
+    /**
+     * @return 仍在本节点拒绝期内时返回剩余毫秒数，否则返回0
+     */
+    private long rejectedLocally(String key) {
+        Long until = rejectUntil.getIfPresent(key);
+        if (until == null) {
+            return 0L;
+        }
+        long remainingNanos = until - System.nanoTime();
+        if (remainingNanos <= 0) {
+            rejectUntil.invalidate(key);
+            return 0L;
+        }
+        localRejections.increment();
+        return Math.max(1L, TimeUnit.NANOSECONDS.toMillis(remainingNanos));
+    }
+
+    private long afterRedis(String key, Long wait) {
+        if (wait == null || wait <= 0) {
+            return PERMITTED;
+        }
+        redisRejections.increment();
+        rejectUntil.put(key, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(wait));
+        return wait;
+    }
+
+}
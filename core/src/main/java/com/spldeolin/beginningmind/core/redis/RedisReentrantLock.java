@@ -0,0 +1,293 @@
+package com.spldeolin.beginningmind.core.redis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.spldeolin.beginningmind.core.CoreProperties;
+import com.spldeolin.beginningmind.core.CoreProperties.DistributedLockProp;
+import io.lettuce.core.ScriptOutputType;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 基于Redis的可重入分布式锁
+ * <pre>
+ * 同一线程可以重复获取同一把锁，获取几次就需要释放几次
+ * 持有期间由看门狗定期续约，持有者线程结束而未释放时，看门狗代为释放
+ * 等待锁时订阅释放通知，而不是轮询Redis；通知丢失时最迟在锁的剩余时间后重试
+ * 每次（非重入的）获取都会得到一个单调递增的fencing token，可以交给下游存储拒绝过期持有者的写入
+ * 所有锁共用一个全局计数器生成fencing token，不会为每个业务ID留下永久的key
+ * 续约失败（锁已丢失）时本节点不再认为持有这把锁，原持有者的unlock返回false
+ *
+ * e.g.:
+ * long token = redisReentrantLock.tryLock("order:" + orderId, 3, TimeUnit.SECONDS);
+ * if (token == RedisReentrantLock.NOT_ACQUIRED) {
+ *     throw new BizException("订单正在处理中");
+ * }
+ * try {
+ *     ...
+ * } finally {
+ *     redisReentrantLock.unlock("order:" + orderId);
+ * }
+ * </pre>
+ *
+ * @author Deolin 2026-10-18
+ */
+@Component
+@Log4j2
+public class RedisReentrantLock implements MessageListener {
+
+    /**
+     * tryLock未能获取锁
+     */
+    public static final long NOT_ACQUIRED = -1L;
+
+    /**
+     * 锁被释放的通知频道，消息内容是锁的key
+     */
+    public static final String RELEASED_CHANNEL = "beginningMind:lock:released";
+
+    /**
+     * 所有锁共用的fencing token计数器，全局单调递增，对每把锁也就单调递增
+     */
+    private static final String FENCING_KEY = "beginningMind:lock:fencing";
+
+    /**
+     * 获取成功时返回fencing token，否则返回锁剩余毫秒数的相反数
+     */
+    private static final LuaScript ACQUIRE_SCRIPT = new LuaScript(
+            "if redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then"
+                    + " return redis.call('incr', KEYS[2]) end"
+                    + " local ttl = redis.call('pttl', KEYS[1])"
+                    + " if ttl < 1 then ttl = 1 end"
+                    + " return -ttl");
+
+    private static final LuaScript RENEW_SCRIPT = new LuaScript("if redis.call('get', KEYS[1]) == ARGV[1] then"
+            + " return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end");
+
+    private static final LuaScript RELEASE_SCRIPT = new LuaScript("if redis.call('get', KEYS[1]) == ARGV[1] then"
+            + " redis.call('del', KEYS[1]) redis.call('publish', ARGV[2], KEYS[1]) return 1 else return 0 end");
+
+    @Autowired
+    private CoreProperties coreProperties;
+
+    @Autowired
+    private RedisConnectionProvider connectionProvider;
+
+    /**
+     * 本节点的唯一标识，与线程ID组成锁的value
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private long leaseMillis;
+
+    /**
+     * 本节点持有的锁
+     */
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+
+    /**
+     * 本节点正在等待的锁
+     */
+    private final Map<String, Signal> signals = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        DistributedLockProp props = coreProperties.getDistributedLock();
+        leaseMillis = props == null || props.getLeaseMillis() == null ? 30000L : props.getLeaseMillis();
+    }
+
+    /**
+     * 尝试获取锁，锁被其他线程持有时最多等待waitTime
+     *
+     * @return fencing token，重入时返回首次获取时的token；未能获取时返回NOT_ACQUIRED
+     */
+    public long tryLock(String lockKey, long waitTime, TimeUnit unit) throws InterruptedException {
+        Hold hold = holds.get(lockKey);
+        if (hold != null && hold.thread == Thread.currentThread()) {
+            hold.count++;
+            return hold.fencingToken;
+        }
+
+        long deadline = System.nanoTime() + unit.toNanos(waitTime);
+        String owner = nodeId + ":" + Thread.currentThread().getId();
+        Signal signal = signals.compute(lockKey, (key, s) -> {
+            Signal result = s == null ? new Signal() : s;
+            result.waiters++;
+            return result;
+        });
+        try {
+            while (true) {
+                long seen = signal.version;
+                long reply = connectionProvider.eval(ACQUIRE_SCRIPT, ScriptOutputType.INTEGER,
+                        new String[]{lockKey, FENCING_KEY}, owner, String.valueOf(leaseMillis));
+                if (reply > 0) {
+                    holds.put(lockKey, new Hold(Thread.currentThread(), owner, reply));
+                    return reply;
+                }
+
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    return NOT_ACQUIRED;
+                }
+                signal.await(seen, Math.min(remainingNanos, TimeUnit.MILLISECONDS.toNanos(-reply)));
+            }
+        } finally {
+            signals.computeIfPresent(lockKey, (key, s) -> --s.waiters == 0 ? null : s);
+        }
+    }
+
+    /**
+     * 尝试获取锁，不等待
+     *
+     * @return fencing token，未能获取时返回NOT_ACQUIRED
+     */
+    public long tryLock(String lockKey) {
+        try {
+            return tryLock(lockKey, 0, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return NOT_ACQUIRED;
+        }
+    }
+
+    /**
+     * 释放一次锁，重入次数归零时真正释放
+     *
+     * @return 锁仍由当前线程持有并被正常释放（或减少重入次数）时返回true；
+     * 锁已经因为过期、续约失败等原因丢失（可能已被其他线程获取），或当前线程没有持有这把锁时返回false
+     */
+    public boolean unlock(String lockKey) {
+        Hold hold = holds.get(lockKey);
+        if (hold == null || hold.thread != Thread.currentThread()) {
+            log.error("锁[{}]在释放前已经丢失，或当前线程没有持有这把锁", lockKey);
+            return false;
+        }
+        if (--hold.count > 0) {
+            return true;
+        }
+
+        holds.remove(lockKey);
+        boolean released = release(lockKey, hold.owner);
+        if (!released) {
+            log.error("锁[{}]在释放前已经丢失，fencing token={}", lockKey, hold.fencingToken);
+        }
+        return released;
+    }
+
+    /**
+     * 当前线程是否持有这把锁
+     */
+    public boolean isHeldByCurrentThread(String lockKey) {
+        Hold hold = holds.get(lockKey);
+        return hold != null && hold.thread == Thread.currentThread();
+    }
+
+    /**
+     * 当前线程持有的锁的fencing token
+     *
+     * @return 未持有时返回NOT_ACQUIRED
+     */
+    public long currentFencingToken(String lockKey) {
+        Hold hold = holds.get(lockKey);
+        return hold != null && hold.thread == Thread.currentThread() ? hold.fencingToken : NOT_ACQUIRED;
+    }
+
+    /**
+     * 看门狗：为本节点持有的锁续约，持有者线程已结束的锁直接释放
+     */
+    @Scheduled(fixedDelayString = "${core.distributed-lock.watchdog-interval-millis:10000}")
+    public void watchdog() {
+        holds.forEach((lockKey, hold) -> {
+            try {
+                if (!hold.thread.isAlive()) {
+                    log.warn("锁[{}]的持有者线程[{}]已结束但未释放锁，由看门狗释放", lockKey, hold.thread.getName());
+                    holds.remove(lockKey, hold);
+                    release(lockKey, hold.owner);
+                    return;
+                }
+                boolean renewed = connectionProvider.eval(RENEW_SCRIPT, ScriptOutputType.BOOLEAN,
+                        new String[]{lockKey}, hold.owner, String.valueOf(leaseMillis));
+                if (!renewed) {
+                    log.error("锁[{}]已丢失，无法续约 fencing token={}", lockKey, hold.fencingToken);
+                    holds.remove(lockKey, hold);
+                }
+            } catch (Exception e) {
+                log.error("锁[{}]续约失败", lockKey, e);
+            }
+        });
+    }
+
+    /**
+     * 收到锁被释放的通知，唤醒本节点等待这把锁的线程
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Signal signal = signals.get(new String(message.getBody(), StandardCharsets.UTF_8));
+        if (signal != null) {
+            signal.signalAll();
+        }
+    }
+
+    private boolean release(String lockKey, String owner) {
+        return connectionProvider.eval(RELEASE_SCRIPT, ScriptOutputType.BOOLEAN, new String[]{lockKey}, owner,
+                RELEASED_CHANNEL);
+    }
+
+    /**
+     * 本节点对一把锁的持有，只有持有者线程会修改count
+     */
+    private static class Hold {
+
+        private final Thread thread;
+
+        private final String owner;
+
+        private final long fencingToken;
+
+        private int count = 1;
+
+        private Hold(Thread thread, String owner, long fencingToken) {
+            this.thread = thread;
+            this.owner = owner;
+            this.fencingToken = fencingToken;
+        }
+
+    }
+
+    /**
+     * 一把锁的释放通知，version在每次通知时自增，避免获取失败与开始等待之间的通知被错过
+     */
+    private static class Signal {
+
+        /**
+         * 只在ConcurrentHashMap.compute中修改
+         */
+        private int waiters;
+
+        private volatile long version;
+
+        private synchronized void signalAll() {
+            version++;
+            notifyAll();
+        }
+
+        private synchronized void await(long seen, long timeoutNanos) throws InterruptedException {
+            long deadline = System.nanoTime() + timeoutNanos;
+            long remaining = timeoutNanos;
+            while (version == seen && remaining > 0) {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.spldeolin.beginningmind.core.redis;
+
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import io.lettuce.core.ScriptOutputType;
+
+/**
+ * 基于Redis的分布式计数信号量
+ *
+ * 每个许可都有租期，持有者宕机而未归还时，许可在租期后自动回收
+ *
+ * @author Deolin 2026-10-18
+ */
+@Component
+public class RedisSemaphore {
+
+    /**
+     * 先回收过期的许可，再尝试获取
+     */
+    private static final LuaScript ACQUIRE_SCRIPT = new LuaScript("redis.replicate_commands()"
+            + " local t = redis.call('time')"
+            + " local now = t[1] * 1000 + math.floor(t[2] / 1000)"
+            + " redis.call('zremrangebyscore', KEYS[1], '-inf', now)"
+            + " if redis.call('zcard', KEYS[1]) < tonumber(ARGV[1]) then"
+            + "   redis.call('zadd', KEYS[1], now + tonumber(ARGV[2]), ARGV[3])"
+            + "   redis.call('pexpire', KEYS[1], ARGV[2])"
+            + "   return 1"
+            + " end"
+            + " return 0");
+
+    @Autowired
+    private RedisConnectionProvider connectionProvider;
+
+    /**
+     * 尝试获取一个许可，不等待
+     *
+     * @param key 信号量的key
+     * @param permits 许可总数
+     * @param leaseMillis 许可的租期（毫秒）
+     * @return 许可的ID，用于归还；没有剩余许可时返回null
+     */
+    public String tryAcquire(String key, int permits, long leaseMillis) {
+        String permitId = UUID.randomUUID().toString();
+        Long acquired = connectionProvider.eval(ACQUIRE_SCRIPT, ScriptOutputType.INTEGER, new String[]{key},
+                String.valueOf(permits), String.valueOf(leaseMillis), permitId);
+        return acquired != null && acquired == 1L ? permitId : null;
+    }
+
+    /**
+     * 归还许可，许可已过期时什么都不会发生
+     */
+    public void release(String key, String permitId) {
+        connectionProvider.sync().zrem(key, permitId);
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.spldeolin.beginningmind.core.redis;
+
+import java.util.Set;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * 编解码器按类名还原对象时允许的类型
+ * <pre>
+ * Redis中的数据一旦被篡改，任意类名都可能被实例化并调用setter（gadget chain），因此只允许：
+ * 1. 本项目的类
+ * 2. JDK的值类型、时间类型与常用集合
+ * 3. Guava的不可变集合
+ * 以及由它们组成的数组
+ * </pre>
+ *
+ * @author Deolin 2026-10-18
+ */
+final class RedisTypeAllowList {
+
+    private static final String[] ALLOWED_PREFIXES = {"com.spldeolin.beginningmind.", "java.time.",
+            "com.google.common.collect.", "java.util.Collections$", "java.util.Arrays$ArrayList"};
+
+    private static final Set<String> ALLOWED_NAMES = ImmutableSet.of("java.lang.Object", "java.lang.Number",
+            "java.lang.Enum", "java.lang.String", "java.lang.Boolean", "java.lang.Character", "java.lang.Byte",
+            "java.lang.Short", "java.lang.Integer", "java.lang.Long", "java.lang.Float", "java.lang.Double",
+            "java.math.BigDecimal", "java.math.BigInteger", "java.util.Date", "java.util.UUID", "java.util.Locale",
+            "java.util.ArrayList", "java.util.LinkedList", "java.util.HashMap", "java.util.LinkedHashMap",
+            "java.util.TreeMap", "java.util.HashSet", "java.util.LinkedHashSet", "java.util.TreeSet",
+            "java.util.Optional");
+
+    private RedisTypeAllowList() {
+    }
+
+    static boolean isAllowed(Class<?> clazz) {
+        while (clazz.isArray()) {
+            clazz = clazz.getComponentType();
+        }
+        return clazz.isPrimitive() || isAllowed(clazz.getName());
+    }
+
+    /**
+     * @param className Class.getName()的形式，数组以"["开头
+     */
+    static boolean isAllowed(String className) {
+        String name = className;
+        if (name.startsWith("[")) {
+            name = name.replaceFirst("^\\[+", "");
+            if (name.length() == 1) {
+                // 基本类型的数组，e.g.: [I
+                return true;
+            }
+            if (!name.startsWith("L") || !name.endsWith(";")) {
+                return false;
+            }
+            name = name.substring(1, name.length() - 1);
+        }
+        if (ALLOWED_NAMES.contains(name)) {
+            return true;
+        }
+        for (String prefix : ALLOWED_PREFIXES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
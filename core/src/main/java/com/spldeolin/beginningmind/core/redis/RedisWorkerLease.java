@@ -0,0 +1,71 @@
+package com.spldeolin.beginningmind.core.redis;
+
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.SetArgs;
+
+/**
+ * 基于Redis的槽位租约
+ *
+ * 每个槽位对应一个带过期时间的key，值为持有者的唯一值，持有者需要在过期前续约
+ *
+ * @author Deolin 2026-10-18
+ */
+@Component
+public class RedisWorkerLease {
+
+    private static final LuaScript RENEW_SCRIPT = new LuaScript("if redis.call('get', KEYS[1]) == ARGV[1] then"
+            + " return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end");
+
+    private static final LuaScript RELEASE_SCRIPT = new LuaScript("if redis.call('get', KEYS[1]) == ARGV[1] then"
+            + " return redis.call('del', KEYS[1]) else return 0 end");
+
+    @Autowired
+    private RedisConnectionProvider connectionProvider;
+
+    /**
+     * 租用一个空闲槽位
+     *
+     * 从随机位置开始依次尝试，避免多个实例同时启动时争抢同一个槽位
+     *
+     * @param namespace 槽位key的前缀
+     * @param slots 槽位总数
+     * @param owner 代表持有者的唯一值
+     * @param leaseMillis 租约时长（毫秒）
+     * @return 租到的槽位，没有空闲槽位时返回-1
+     */
+    public int acquire(String namespace, int slots, String owner, long leaseMillis) {
+        int offset = ThreadLocalRandom.current().nextInt(slots);
+        for (int i = 0; i < slots; i++) {
+            int slot = (offset + i) % slots;
+            String reply = connectionProvider.sync()
+                    .set(namespace + slot, owner, SetArgs.Builder.nx().px(leaseMillis));
+            if ("OK".equals(reply)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 续约
+     *
+     * @return 槽位仍由owner持有并续约成功时返回true
+     */
+    public boolean renew(String namespace, int slot, String owner, long leaseMillis) {
+        return connectionProvider.eval(RENEW_SCRIPT, ScriptOutputType.BOOLEAN, new String[]{namespace + slot}, owner,
+                String.valueOf(leaseMillis));
+    }
+
+    /**
+     * 归还槽位
+     *
+     * @return 是否成功归还
+     */
+    public boolean release(String namespace, int slot, String owner) {
+        return connectionProvider.eval(RELEASE_SCRIPT, ScriptOutputType.BOOLEAN, new String[]{namespace + slot}, owner);
+    }
+
+}
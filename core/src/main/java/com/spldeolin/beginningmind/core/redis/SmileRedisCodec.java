@@ -0,0 +1,111 @@
+package com.spldeolin.beginningmind.core.redis;
+
+import java.io.IOException;
+import java.util.Collection;
+import org.springframework.data.redis.serializer.SerializationException;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectMapper.DefaultTypeResolverBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper.DefaultTyping;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.jsontype.NamedType;
+import com.fasterxml.jackson.databind.jsontype.TypeIdResolver;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * 基于Jackson Smile（二进制JSON）的编解码器
+ *
+ * 开启default typing以还原具体类型，只序列化有getter的属性，忽略@JsonIgnore的属性
+ * 反序列化时只接受RedisTypeAllowList允许的类型标记
+ *
+ * @author Deolin 2026-10-18
+ */
+public class SmileRedisCodec implements RedisCodec {
+
+    public static final String NAME = "smile";
+
+    /**
+     * Smile格式固定的头部 ":)\n"
+     */
+    private static final byte[] HEADER = {':', ')', '\n'};
+
+    private final ObjectMapper mapper;
+
+    public SmileRedisCodec() {
+        mapper = new ObjectMapper(new SmileFactory());
+        mapper.findAndRegisterModules();
+        mapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        mapper.setDefaultTyping(new AllowListTypeResolverBuilder().init(JsonTypeInfo.Id.CLASS, null)
+                .inclusion(JsonTypeInfo.As.PROPERTY));
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isEncodedBy(byte[] bytes) {
+        return bytes.length >= HEADER.length && bytes[0] == HEADER[0] && bytes[1] == HEADER[1]
+                && bytes[2] == HEADER[2];
+    }
+
+    @Override
+    public byte[] serialize(Object t) throws SerializationException {
+        if (t == null) {
+            return new byte[0];
+        }
+        Holder holder = new Holder();
+        holder.value = t;
+        try {
+            return mapper.writeValueAsBytes(holder);
+        } catch (IOException e) {
+            throw new SerializationException("Smile序列化失败 type=" + t.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return mapper.readValue(bytes, Holder.class).value;
+        } catch (IOException e) {
+            throw new SerializationException("Smile反序列化失败", e);
+        }
+    }
+
+    /**
+     * 与enableDefaultTyping(NON_FINAL, PROPERTY)相同，但类型标记经过RedisTypeAllowList校验
+     */
+    private static class AllowListTypeResolverBuilder extends DefaultTypeResolverBuilder {
+
+        private static final long serialVersionUID = 1L;
+
+        private AllowListTypeResolverBuilder() {
+            super(DefaultTyping.NON_FINAL);
+        }
+
+        @Override
+        protected TypeIdResolver idResolver(MapperConfig<?> config, JavaType baseType,
+                Collection<NamedType> subtypes, boolean forSer, boolean forDeser) {
+            return new AllowListTypeIdResolver(super.idResolver(config, baseType, subtypes, forSer, forDeser));
+        }
+
+    }
+
+    /**
+     * 使根对象也带上类型信息（如Long不会被还原成Integer）
+     */
+    static class Holder {
+
+        public Object value;
+
+    }
+
+}
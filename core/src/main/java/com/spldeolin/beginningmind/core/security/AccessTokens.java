@@ -0,0 +1,145 @@
+package com.spldeolin.beginningmind.core.security;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+import com.spldeolin.beginningmind.core.CoreProperties;
+import com.spldeolin.beginningmind.core.CoreProperties.SignedTokenProp;
+import com.spldeolin.beginningmind.core.security.dto.SignedTokenDTO;
+import com.spldeolin.beginningmind.core.security.exception.UnsignedException;
+import com.spldeolin.beginningmind.core.service.SnowFlakeService;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * HMAC签名的访问令牌，在进程内验证，不需要访问Redis
+ * <pre>
+ * 令牌是以下73字节的Base64URL编码（98个字符）：
+ * 版本(1) | 令牌ID(8) | 用户ID(8) | 失效时间epoch秒(8) | 权限摘要(32) | HMAC-SHA256的前16字节
+ * 所有节点需要配置相同的core.signed-token.secret，开启core.signed-token.require-secret时没有配置则启动失败
+ * </pre>
+ *
+ * @author Deolin 2026-10-18
+ */
+@Component
+@Log4j2
+public class AccessTokens {
+
+    private static final byte VERSION = 1;
+
+    private static final int PAYLOAD_LENGTH = 1 + 8 + 8 + 8 + 32;
+
+    private static final int SIGNATURE_LENGTH = 16;
+
+    @Autowired
+    private CoreProperties coreProperties;
+
+    @Autowired
+    private SnowFlakeService snowFlakeService;
+
+    @Autowired
+    private TokenRevocations tokenRevocations;
+
+    private HashFunction hmac;
+
+    private long accessSeconds;
+
+    @PostConstruct
+    public void init() {
+        SignedTokenProp props = coreProperties.getSignedToken();
+        accessSeconds = props == null || props.getAccessSeconds() == null ? 600L : props.getAccessSeconds();
+
+        byte[] secret;
+        if (props == null || !StringUtils.hasText(props.getSecret())) {
+            if (props != null && Boolean.TRUE.equals(props.getRequireSecret())) {
+                throw new IllegalStateException("没有配置core.signed-token.secret");
+            }
+            // 只适用于单节点，重启后已签发的令牌全部失效
+            log.warn("没有配置core.signed-token.secret，使用随机密钥");
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        } else {
+            secret = Base64.getDecoder().decode(props.getSecret());
+            if (secret.length < 32) {
+                throw new IllegalArgumentException("core.signed-token.secret应至少32字节");
+            }
+        }
+        hmac = Hashing.hmacSha256(secret);
+    }
+
+    /**
+     * 签发访问令牌
+     */
+    public String issue(Long userId, String permissionHash, long expiresAt) {
+        ByteBuffer buffer = ByteBuffer.allocate(PAYLOAD_LENGTH + SIGNATURE_LENGTH);
+        buffer.put(VERSION);
+        buffer.putLong(snowFlakeService.nextId());
+        buffer.putLong(userId);
+        buffer.putLong(expiresAt);
+        buffer.put(BaseEncoding.base16().lowerCase().decode(permissionHash));
+        buffer.put(sign(buffer.array()));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * 访问令牌从现在开始的失效时间（epoch秒）
+     */
+    public long nextExpiresAt() {
+        return System.currentTimeMillis() / 1000 + accessSeconds;
+    }
+
+    /**
+     * 验证签名、失效时间与是否已被撤销
+     *
+     * @throws UnsignedException 令牌无效
+     */
+    public SignedTokenDTO verify(String token) throws UnsignedException {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new UnsignedException("令牌无效");
+        }
+        if (bytes.length != PAYLOAD_LENGTH + SIGNATURE_LENGTH || bytes[0] != VERSION) {
+            throw new UnsignedException("令牌无效");
+        }
+        byte[] signature = Arrays.copyOfRange(bytes, PAYLOAD_LENGTH, bytes.length);
+        if (!MessageDigest.isEqual(sign(bytes), signature)) {
+            throw new UnsignedException("令牌无效");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, PAYLOAD_LENGTH - 1);
+        SignedTokenDTO dto = new SignedTokenDTO();
+        dto.setTokenId(buffer.getLong());
+        dto.setUserId(buffer.getLong());
+        dto.setExpiresAt(buffer.getLong());
+        byte[] permissionHash = new byte[32];
+        buffer.get(permissionHash);
+        dto.setPermissionHash(BaseEncoding.base16().lowerCase().encode(permissionHash));
+
+        if (dto.getExpiresAt() <= System.currentTimeMillis() / 1000) {
+            throw new UnsignedException("令牌已过期");
+        }
+        if (tokenRevocations.isRevoked(dto.getTokenId())) {
+            throw new UnsignedException("令牌已被撤销");
+        }
+        return dto;
+    }
+
+    /**
+     * 对前PAYLOAD_LENGTH字节签名
+     */
+    private byte[] sign(byte[] bytes) {
+        byte[] mac = hmac.hashBytes(bytes, 0, PAYLOAD_LENGTH).asBytes();
+        return Arrays.copyOf(mac, SIGNATURE_LENGTH);
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.spldeolin.beginningmind.core.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import com.spldeolin.beginningmind.core.security.event.PermissionChangedEvent;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 权限变化后，自增Redis中的权限版本，并通知所有节点失效登录者缓存
+ *
+ * 在事务提交后执行（没有事务时立即执行），保证其他节点按新版本重新加载时读到的是新的关联关系
+ *
+ * @author Deolin 2026-10-18
+ */
+@Component
+@Log4j2
+public class PermissionChangeListener {
+
+    @Autowired
+    private PermissionVersions permissionVersions;
+
+    @Autowired
+    private SignerProfileCache signerProfileCache;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPermissionChanged(PermissionChangedEvent event) {
+        if (!event.isAll() && event.getUserIds().isEmpty()) {
+            return;
+        }
+        try {
+            if (event.isAll()) {
+                permissionVersions.bumpAll();
+            } else {
+                permissionVersions.bump(event.getUserIds());
+            }
+        } catch (Exception e) {
+            // 版本未能自增时，仍然依靠失效通知与缓存过期生效
+            log.error("自增权限版本失败 userIds={} all={}", event.getUserIds(), event.isAll(), e);
+        }
+
+        if (event.isAll()) {
+            signerProfileCache.invalidateAll();
+        } else {
+            signerProfileCache.invalidate(event.getUserIds());
+        }
+    }
+
+}
@@ -1,28 +1,56 @@
 package com.spldeolin.beginningmind.core.security;
 
 import javax.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import com.spldeolin.beginningmind.core.entity.PermissionEntity;
+import com.spldeolin.beginningmind.core.security.dto.CurrentSignerDTO;
+import com.spldeolin.beginningmind.core.security.dto.SignedTokenDTO;
+import com.spldeolin.beginningmind.core.security.dto.SignerProfileDTO;
 import com.spldeolin.beginningmind.core.security.exception.UnauthorizeException;
+import com.spldeolin.beginningmind.core.security.exception.UnsignedException;
 import com.spldeolin.beginningmind.core.security.util.SignContext;
+import com.spldeolin.beginningmind.core.service.impl.SignServiceImpl;
+import com.spldeolin.beginningmind.core.util.Sessions;
+import lombok.extern.log4j.Log4j2;
 
 /**
  * @author Deolin 2018/12/07
  */
 @Component
+@Log4j2
 public class PermissionChecker {
 
+    @Autowired
+    private SignerProfileCache signerProfileCache;
+
     public void ensurePermission(HttpServletRequest request) throws UnauthorizeException {
-        String url = request.getRequestURI();
-
-        boolean isPermit = false;
-        for (PermissionEntity permission : SignContext.current().getPermissions()) {
-            if (request.getMethod().equalsIgnoreCase(permission.getMappingMethod())
-                    && url.startsWith(permission.getMappingPath())) {
-                isPermit = true;
-            }
+        CurrentSignerDTO signer = SignContext.current();
+        SignerProfileDTO profile = signerProfileCache.getCurrent(signer.getUserId());
+        if (!profile.getPermissionHash().equals(signer.getPermissionHash())) {
+            // 登录后权限发生过变化
+            log.info("用户的权限已变化 {}", signer.getUserId());
+            signer.setPermissionHash(profile.getPermissionHash());
+            Sessions.set(SignServiceImpl.SIGNER_SESSION_KEY, signer);
+        }
+
+        if (!profile.getPermissionMatcher().matches(request.getMethod(), request.getRequestURI())) {
+            throw new UnauthorizeException("权限不足");
         }
-        if (!isPermit) {
+    }
+
+    /**
+     * 无状态登录的鉴权，只使用节点内的登录者缓存（由失效通知与过期时间保持更新），不访问Redis
+     *
+     * @throws UnsignedException 签发令牌后权限发生过变化，需要刷新令牌
+     */
+    public void ensurePermission(HttpServletRequest request, SignedTokenDTO signedToken)
+            throws UnauthorizeException, UnsignedException {
+        SignerProfileDTO profile = signerProfileCache.get(signedToken.getUserId());
+        if (!profile.getPermissionHash().equals(signedToken.getPermissionHash())) {
+            throw new UnsignedException("权限已变化，请刷新令牌");
+        }
+
+        if (!profile.getPermissionMatcher().matches(request.getMethod(), request.getRequestURI())) {
             throw new UnauthorizeException("权限不足");
         }
     }
@@ -0,0 +1,190 @@
+package com.spldeolin.beginningmind.core.security;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import com.google.common.collect.Maps;
+import com.spldeolin.beginningmind.core.entity.PermissionEntity;
+
+/**
+ * 由一组权限编译而成的不可变匹配器
+ * <pre>
+ * 每个HTTP方法一棵以字符为单位压缩的基数树，路由中的{xxx}与*匹配一个路径段（不含/）
+ * 与此前的url.startsWith(mappingPath)一致，请求路由以某个权限路由开头即视为拥有权限
+ * 匹配耗时只与请求路由的长度有关，且不产生临时对象
+ * </pre>
+ *
+ * @author Deolin 2026-10-18
+ */
+public final class PermissionMatcher {
+
+    private final String[] methods;
+
+    private final Node[] roots;
+
+    private PermissionMatcher(String[] methods, Node[] roots) {
+        this.methods = methods;
+        this.roots = roots;
+    }
+
+    public static PermissionMatcher compile(Collection<PermissionEntity> permissions) {
+        Map<String, Builder> builders = Maps.newTreeMap();
+        for (PermissionEntity permission : permissions) {
+            if (permission.getMappingMethod() == null || permission.getMappingPath() == null) {
+                continue;
+            }
+            builders.computeIfAbsent(permission.getMappingMethod().toUpperCase(), method -> new Builder())
+                    .insert(permission.getMappingPath());
+        }
+
+        String[] methods = new String[builders.size()];
+        Node[] roots = new Node[builders.size()];
+        int i = 0;
+        for (Map.Entry<String, Builder> entry : builders.entrySet()) {
+            methods[i] = entry.getKey();
+            roots[i] = entry.getValue().compile(null);
+            i++;
+        }
+        return new PermissionMatcher(methods, roots);
+    }
+
+    /**
+     * @param method HTTP方法，不区分大小写
+     * @param path 请求路由
+     */
+    public boolean matches(String method, String path) {
+        for (int i = 0; i < methods.length; i++) {
+            if (methods[i].equalsIgnoreCase(method)) {
+                return roots[i].matches(path, 0);
+            }
+        }
+        return false;
+    }
+
+    private static final class Node {
+
+        /**
+         * 进入这个节点需要匹配的字面量
+         */
+        private final String label;
+
+        /**
+         * 到达这个节点即拥有权限
+         */
+        private final boolean terminal;
+
+        /**
+         * 字面量子节点的首字符，升序
+         */
+        private final char[] firstChars;
+
+        private final Node[] children;
+
+        /**
+         * 匹配一个路径段后进入的子节点
+         */
+        private final Node variable;
+
+        private Node(String label, boolean terminal, char[] firstChars, Node[] children, Node variable) {
+            this.label = label;
+            this.terminal = terminal;
+            this.firstChars = firstChars;
+            this.children = children;
+            this.variable = variable;
+        }
+
+        private boolean matches(String path, int from) {
+            if (!path.regionMatches(from, label, 0, label.length())) {
+                return false;
+            }
+            int pos = from + label.length();
+            if (terminal) {
+                return true;
+            }
+            if (pos == path.length()) {
+                return false;
+            }
+
+            int index = Arrays.binarySearch(firstChars, path.charAt(pos));
+            if (index >= 0 && children[index].matches(path, pos)) {
+                return true;
+            }
+            if (variable != null) {
+                int end = path.indexOf('/', pos);
+                if (end == -1) {
+                    end = path.length();
+                }
+                return end > pos && variable.matches(path, end);
+            }
+            return false;
+        }
+
+    }
+
+    /**
+     * 未压缩的字符树，只在编译期间使用
+     */
+    private static final class Builder {
+
+        private final TreeMap<Character, Builder> children = new TreeMap<>();
+
+        private Builder variable;
+
+        private boolean terminal;
+
+        private void insert(String pattern) {
+            Builder current = this;
+            int i = 0;
+            while (i < pattern.length()) {
+                char c = pattern.charAt(i);
+                int end = segmentEnd(pattern, i);
+                if (c == '{' && pattern.charAt(end - 1) == '}' || c == '*' && end == i + 1) {
+                    if (current.variable == null) {
+                        current.variable = new Builder();
+                    }
+                    current = current.variable;
+                    i = end;
+                } else {
+                    current = current.children.computeIfAbsent(c, key -> new Builder());
+                    i++;
+                }
+            }
+            current.terminal = true;
+        }
+
+        /**
+         * @param first 进入这个节点的字符，变量节点与根节点为null
+         */
+        private Node compile(Character first) {
+            StringBuilder label = new StringBuilder();
+            if (first != null) {
+                label.append(first.charValue());
+            }
+            Builder current = this;
+            while (!current.terminal && current.variable == null && current.children.size() == 1) {
+                Map.Entry<Character, Builder> only = current.children.firstEntry();
+                label.append(only.getKey().charValue());
+                current = only.getValue();
+            }
+
+            char[] firstChars = new char[current.children.size()];
+            Node[] children = new Node[current.children.size()];
+            int i = 0;
+            for (Map.Entry<Character, Builder> entry : current.children.entrySet()) {
+                firstChars[i] = entry.getKey();
+                children[i] = entry.getValue().compile(entry.getKey());
+                i++;
+            }
+            Node variable = current.variable == null ? null : current.variable.compile(null);
+            return new Node(label.toString(), current.terminal, firstChars, children, variable);
+        }
+
+        private static int segmentEnd(String pattern, int from) {
+            int end = pattern.indexOf('/', from);
+            return end == -1 ? pattern.length() : end;
+        }
+
+    }
+
+}
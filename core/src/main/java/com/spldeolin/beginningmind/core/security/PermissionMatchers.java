@@ -0,0 +1,45 @@
+package com.spldeolin.beginningmind.core.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Component;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.spldeolin.beginningmind.core.entity.PermissionEntity;
+
+/**
+ * 按权限集合的摘要缓存PermissionMatcher，被授予相同权限的用户共用同一个匹配器
+ *
+ * @author Deolin 2026-10-18
+ */
+@Component
+public class PermissionMatchers {
+
+    private final Cache<String, PermissionMatcher> matchers = Caffeine.newBuilder().maximumSize(1024).build();
+
+    /**
+     * 权限集合的摘要，与权限的顺序、重复无关
+     */
+    public String hash(Collection<PermissionEntity> permissions) {
+        List<String> lines = permissions.stream()
+                .map(permission -> permission.getMappingMethod() + " " + permission.getMappingPath()).distinct()
+                .sorted().collect(Collectors.toList());
+        Hasher hasher = Hashing.sha256().newHasher();
+        lines.forEach(line -> hasher.putString(line, StandardCharsets.UTF_8).putByte((byte) '\n'));
+        return hasher.hash().toString();
+    }
+
+    /**
+     * 获取摘要对应的匹配器，本节点还没有时由permissions编译
+     *
+     * @param hash permissions的摘要
+     */
+    public PermissionMatcher get(String hash, Collection<PermissionEntity> permissions) {
+        return matchers.get(hash, key -> PermissionMatcher.compile(permissions));
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.spldeolin.beginningmind.core.security;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import com.spldeolin.beginningmind.core.redis.LuaScript;
+import com.spldeolin.beginningmind.core.redis.RedisConnectionProvider;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.ScriptOutputType;
+
+/**
+ * 保存在Redis中的用户权限版本
+ * <pre>
+ * 用户的权限版本由全局版本与用户版本组成，e.g.: 3.12
+ * 用户的权限变化时自增用户版本，无法确定受影响的用户时自增全局版本
+ * 版本不一致即说明权限可能发生过变化，key过期导致版本归零同样视为变化
+ * </pre>
+ *
+ * @author Deolin 2026-10-18
+ */
+@Component
+public class PermissionVersions {
+
+    private static final String KEY_PREFIX = "beginningMind:permissionVersion:";
+
+    private static final String GLOBAL_KEY = KEY_PREFIX + "global";
+
+    /**
+     * 最后一次变化后保留的时间，超过会话的存活时间即可
+     */
+    private static final long RETAIN_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    /**
+     * 自增所有KEYS并重置过期时间，一次往返且原子
+     */
+    private static final LuaScript BUMP_SCRIPT = new LuaScript("for _, key in ipairs(KEYS) do"
+            + " redis.call('incr', key) redis.call('pexpire', key, ARGV[1]) end return #KEYS");
+
+    @Autowired
+    private RedisConnectionProvider connectionProvider;
+
+    /**
+     * 一次MGET获取用户的权限版本
+     */
+    public String get(Long userId) {
+        List<KeyValue<String, String>> values = connectionProvider.sync().mget(GLOBAL_KEY, key(userId));
+        return values.get(0).getValueOrElse("0") + "." + values.get(1).getValueOrElse("0");
+    }
+
+    public void bump(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        bump(userIds.stream().map(PermissionVersions::key).toArray(String[]::new));
+    }
+
+    public void bumpAll() {
+        bump(new String[]{GLOBAL_KEY});
+    }
+
+    private void bump(String[] keys) {
+        connectionProvider.eval(BUMP_SCRIPT, ScriptOutputType.INTEGER, keys, String.valueOf(RETAIN_MILLIS));
+    }
+
+    private static String key(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+
+}
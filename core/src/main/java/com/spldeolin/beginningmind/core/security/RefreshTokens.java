@@ -0,0 +1,84 @@
+package com.spldeolin.beginningmind.core.security;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import com.spldeolin.beginningmind.core.CoreProperties;
+import com.spldeolin.beginningmind.core.CoreProperties.SignedTokenProp;
+import com.spldeolin.beginningmind.core.redis.LuaScript;
+import com.spldeolin.beginningmind.core.redis.RedisConnectionProvider;
+import io.lettuce.core.ScriptOutputType;
+
+/**
+ * 保存在Redis中的刷新令牌，每个刷新令牌只能使用一次
+ *
+ * @author Deolin 2026-10-18
+ */
+@Component
+public class RefreshTokens {
+
+    private static final String KEY_PREFIX = "beginningMind:refreshToken:";
+
+    /**
+     * 获取并删除，返回用户ID
+     */
+    private static final LuaScript CONSUME_SCRIPT = new LuaScript(
+            "local v = redis.call('get', KEYS[1]) if v then redis.call('del', KEYS[1]) end return v");
+
+    /**
+     * 属于指定用户时删除
+     */
+    private static final LuaScript DELETE_SCRIPT = new LuaScript(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end");
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private CoreProperties coreProperties;
+
+    @Autowired
+    private RedisConnectionProvider connectionProvider;
+
+    private long refreshSeconds;
+
+    @PostConstruct
+    public void init() {
+        SignedTokenProp props = coreProperties.getSignedToken();
+        refreshSeconds = props == null || props.getRefreshSeconds() == null ? 604800L : props.getRefreshSeconds();
+    }
+
+    /**
+     * 为用户创建刷新令牌
+     */
+    public String create(Long userId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        connectionProvider.sync().setex(KEY_PREFIX + refreshToken, refreshSeconds, String.valueOf(userId));
+        return refreshToken;
+    }
+
+    /**
+     * 使用刷新令牌
+     *
+     * @return 用户ID，刷新令牌不存在、已过期或已被使用时返回null
+     */
+    public Long consume(String refreshToken) {
+        String userId = connectionProvider.eval(CONSUME_SCRIPT, ScriptOutputType.VALUE,
+                new String[]{KEY_PREFIX + refreshToken});
+        return userId == null ? null : Long.valueOf(userId);
+    }
+
+    /**
+     * 删除属于用户的刷新令牌
+     *
+     * @return 刷新令牌不存在、已过期或不属于这个用户时返回false
+     */
+    public boolean delete(String refreshToken, Long userId) {
+        return connectionProvider.eval(DELETE_SCRIPT, ScriptOutputType.BOOLEAN, new String[]{KEY_PREFIX + refreshToken},
+                String.valueOf(userId));
+    }
+
+}
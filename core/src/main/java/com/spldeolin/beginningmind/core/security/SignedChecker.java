@@ -1,8 +1,12 @@
 package com.spldeolin.beginningmind.core.security;
 
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import com.spldeolin.beginningmind.core.security.dto.SignedTokenDTO;
 import com.spldeolin.beginningmind.core.security.exception.UnsignedException;
 import com.spldeolin.beginningmind.core.security.util.SignContext;
+import com.spldeolin.beginningmind.core.util.WebContext;
 
 /**
  * @author Deolin 2018/12/02
@@ -10,10 +14,29 @@ import com.spldeolin.beginningmind.core.security.util.SignContext;
 @Component
 public class SignedChecker {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Autowired
+    private AccessTokens accessTokens;
+
     public void ensureSigned() throws UnsignedException {
         if (!SignContext.isSigning()) {
             throw new UnsignedException("未登录或登录超时");
         }
     }
 
+    /**
+     * 验证请求头Authorization中的访问令牌，验证通过的令牌存入WebContext
+     */
+    public SignedTokenDTO ensureSignedToken(HttpServletRequest request) throws UnsignedException {
+        String authorization = request.getHeader("Authorization");
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0,
+                BEARER_PREFIX.length())) {
+            throw new UnsignedException("未登录或登录超时");
+        }
+        SignedTokenDTO signedToken = accessTokens.verify(authorization.substring(BEARER_PREFIX.length()).trim());
+        WebContext.setSignedToken(signedToken);
+        return signedToken;
+    }
+
 }
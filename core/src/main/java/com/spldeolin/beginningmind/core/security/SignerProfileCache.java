@@ -0,0 +1,214 @@
+package com.spldeolin.beginningmind.core.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.spldeolin.beginningmind.core.CoreProperties;
+import com.spldeolin.beginningmind.core.CoreProperties.SignerProfileProp;
+import com.spldeolin.beginningmind.core.common.BizException;
+import com.spldeolin.beginningmind.core.entity.PermissionEntity;
+import com.spldeolin.beginningmind.core.entity.UserEntity;
+import com.spldeolin.beginningmind.core.security.dto.SignerProfileDTO;
+import com.spldeolin.beginningmind.core.service.PermissionService;
+import com.spldeolin.beginningmind.core.service.UserService;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 节点内的登录者缓存：用户ID -> 用户与编译后的权限
+ * <pre>
+ * 用户的权限关联变化时，通过Redis pub/sub通知所有节点失效；
+ * 通知可能丢失，因此getCurrent每隔versionCheckMillis还会与PermissionVersions比较一次，版本不一致时重新加载
+ * 用户信息的变化最迟在expireSeconds后生效
+ * </pre>
+ *
+ * @author Deolin 2026-10-18
+ */
+@Component
+@Log4j2
+public class SignerProfileCache implements MessageListener {
+
+    /**
+     * 失效通知的频道，消息内容是用户ID，多个用户ID以换行符分隔，“*”表示所有用户
+     */
+    public static final String INVALIDATE_CHANNEL = "beginningMind:signerProfile:invalidate";
+
+    private static final String ALL = "*";
+
+    @Autowired
+    private CoreProperties coreProperties;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private PermissionMatchers permissionMatchers;
+
+    @Autowired
+    private PermissionVersions permissionVersions;
+
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private Cache<Long, SignerProfileDTO> cache;
+
+    private long versionCheckMillis;
+
+    @PostConstruct
+    public void init() {
+        SignerProfileProp props = coreProperties.getSignerProfile();
+        long maximumSize = props == null || props.getMaximumSize() == null ? 10000L : props.getMaximumSize();
+        long expireSeconds = props == null || props.getExpireSeconds() == null ? 300L : props.getExpireSeconds();
+        versionCheckMillis = props == null || props.getVersionCheckMillis() == null ? 1000L
+                : props.getVersionCheckMillis();
+        cache = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * @throws BizException 用户不存在或是已被删除
+     */
+    public SignerProfileDTO get(Long userId) {
+        return cache.get(userId, this::load);
+    }
+
+    /**
+     * 获取用户与编译后的权限，距离上一次比较超过versionCheckMillis时，先与Redis中的权限版本比较
+     *
+     * @throws BizException 用户不存在或是已被删除
+     */
+    public SignerProfileDTO getCurrent(Long userId) {
+        SignerProfileDTO profile = get(userId);
+        long now = System.currentTimeMillis();
+        if (now - profile.getVersionCheckedAt() < versionCheckMillis) {
+            return profile;
+        }
+
+        String version;
+        try {
+            version = permissionVersions.get(userId);
+        } catch (Exception e) {
+            log.error("获取权限版本失败，沿用缓存 userId={}", userId, e);
+            return profile;
+        }
+        if (!version.equals(profile.getPermissionVersion())) {
+            log.info("用户的权限版本已变化 userId={} {} -> {}", userId, profile.getPermissionVersion(), version);
+            cache.asMap().remove(userId, profile);
+            return get(userId);
+        }
+        profile.setVersionCheckedAt(now);
+        return profile;
+    }
+
+    /**
+     * 重新加载本节点中这个用户的缓存（登录时）
+     */
+    public SignerProfileDTO reload(Long userId) {
+        cache.invalidate(userId);
+        return get(userId);
+    }
+
+    /**
+     * 失效本节点与其他节点中这些用户的缓存
+     */
+    public void invalidate(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        String body = Joiner.on('\n').join(userIds);
+        invalidateNowAndAfterCommit(() -> {
+            cache.invalidateAll(userIds);
+            publish(body);
+        });
+    }
+
+    /**
+     * 失效本节点与其他节点中所有用户的缓存
+     */
+    public void invalidateAll() {
+        invalidateNowAndAfterCommit(() -> {
+            cache.invalidateAll();
+            publish(ALL);
+        });
+    }
+
+    /**
+     * 收到其他节点（包括本节点）的失效通知
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (ALL.equals(body)) {
+            cache.invalidateAll();
+            return;
+        }
+        Splitter.on('\n').omitEmptyStrings().split(body).forEach(userId -> cache.invalidate(Long.valueOf(userId)));
+    }
+
+    private SignerProfileDTO load(Long userId) {
+        // 先于关联关系读取版本，读取期间发生的变化会使版本不一致，下一次比较时重新加载
+        String permissionVersion = null;
+        try {
+            permissionVersion = permissionVersions.get(userId);
+        } catch (Exception e) {
+            log.error("获取权限版本失败 userId={}", userId, e);
+        }
+
+        UserEntity user = userService.get(userId).orElseThrow(() -> new BizException("用户不存在或是已被删除"));
+        List<PermissionEntity> permissions = permissionService.listGrantedPermission(userId);
+        String permissionHash = permissionMatchers.hash(permissions);
+        List<Long> permissionIds = permissions.stream().map(PermissionEntity::getId).collect(Collectors.toList());
+        SignerProfileDTO profile = new SignerProfileDTO();
+        profile.setUser(user);
+        profile.setPermissionVersion(permissionVersion);
+        profile.setVersionCheckedAt(System.currentTimeMillis());
+        profile.setPermissionHash(permissionHash);
+        profile.setPermissionIds(permissionIds);
+        profile.setPermissionMatcher(permissionMatchers.get(permissionHash, permissions));
+        return profile;
+    }
+
+    /**
+     * 立即失效，处于事务中时在提交后再失效一次，避免提交前被其他请求以旧的关联关系加载
+     */
+    private void invalidateNowAndAfterCommit(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    private void publish(String body) {
+        byte[] channel = INVALIDATE_CHANNEL.getBytes(StandardCharsets.UTF_8);
+        byte[] message = body.getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, message));
+        } catch (Exception e) {
+            // 通知失败时，其他节点的缓存最迟在expireSeconds后失效
+            log.error("发布登录者缓存失效通知失败", e);
+        }
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.spldeolin.beginningmind.core.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.spldeolin.beginningmind.core.CoreProperties;
+import com.spldeolin.beginningmind.core.CoreProperties.SignedTokenProp;
+import com.spldeolin.beginningmind.core.redis.RedisConnectionProvider;
+import io.lettuce.core.Range;
+import io.lettuce.core.api.sync.RedisCommands;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 被撤销的访问令牌
+ * <pre>
+ * Redis中以有序集合保存未过期的被撤销令牌ID（score为令牌的失效时间），
+ * 每个节点以布隆过滤器保存一份，撤销时通过pub/sub通知所有节点，并定期按有序集合重建（同时淘汰已过期的令牌ID）
+ * 布隆过滤器未命中时不访问Redis；命中时向Redis确认，排除误判
+ * </pre>
+ *
+ * @author Deolin 2026-10-18
+ */
+@Component
+@Log4j2
+public class TokenRevocations implements MessageListener {
+
+    /**
+     * 撤销通知的频道，消息内容是令牌ID
+     */
+    public static final String REVOKED_CHANNEL = "beginningMind:token:revoked";
+
+    private static final String KEY = "beginningMind:token:revokedIds";
+
+    @Autowired
+    private CoreProperties coreProperties;
+
+    @Autowired
+    private RedisConnectionProvider connectionProvider;
+
+    private long expectedInsertions;
+
+    private double fpp;
+
+    private volatile BloomFilter<Long> filter;
+
+    /**
+     * 正在重建的布隆过滤器，重建期间收到的通知同时写入
+     */
+    private volatile BloomFilter<Long> rebuilding;
+
+    @PostConstruct
+    public void init() {
+        SignedTokenProp props = coreProperties.getSignedToken();
+        expectedInsertions = props == null || props.getRevocationExpectedInsertions() == null ? 100000L
+                : props.getRevocationExpectedInsertions();
+        fpp = props == null || props.getRevocationFpp() == null ? 0.001D : props.getRevocationFpp();
+        filter = newFilter();
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("加载被撤销的令牌失败，等待下一次重建", e);
+        }
+    }
+
+    /**
+     * 撤销令牌
+     *
+     * @param expiresAt 令牌的失效时间（epoch秒），之后不再需要保存
+     */
+    public void revoke(Long tokenId, long expiresAt) {
+        RedisCommands<String, String> commands = connectionProvider.sync();
+        commands.zadd(KEY, expiresAt, String.valueOf(tokenId));
+        put(tokenId);
+        commands.publish(REVOKED_CHANNEL, String.valueOf(tokenId));
+    }
+
+    /**
+     * Redis不可用时，布隆过滤器命中的令牌视为已被撤销
+     */
+    public boolean isRevoked(Long tokenId) {
+        if (!filter.mightContain(tokenId)) {
+            return false;
+        }
+        try {
+            return connectionProvider.sync().zscore(KEY, String.valueOf(tokenId)) != null;
+        } catch (Exception e) {
+            log.error("确认令牌是否被撤销失败 tokenId={}", tokenId, e);
+            return true;
+        }
+    }
+
+    /**
+     * 收到其他节点（包括本节点）的撤销通知
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        put(Long.valueOf(new String(message.getBody(), StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 按Redis重建布隆过滤器，同时弥补丢失的通知
+     */
+    @Scheduled(fixedDelayString = "${core.signed-token.revocation-sync-millis:60000}")
+    public void rebuild() {
+        BloomFilter<Long> fresh = newFilter();
+        rebuilding = fresh;
+        try {
+            RedisCommands<String, String> commands = connectionProvider.sync();
+            commands.zremrangebyscore(KEY, Range.create(0, System.currentTimeMillis() / 1000));
+            List<String> tokenIds = commands.zrange(KEY, 0, -1);
+            tokenIds.forEach(tokenId -> fresh.put(Long.valueOf(tokenId)));
+            if (tokenIds.size() > expectedInsertions) {
+                log.warn("被撤销的令牌数量{}超过了布隆过滤器的预期{}，误判率将升高", tokenIds.size(), expectedInsertions);
+            }
+            filter = fresh;
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private void put(Long tokenId) {
+        filter.put(tokenId);
+        BloomFilter<Long> rebuilding = this.rebuilding;
+        if (rebuilding != null) {
+            rebuilding.put(tokenId);
+        }
+    }
+
+    private BloomFilter<Long> newFilter() {
+        return BloomFilter.create(Funnels.longFunnel(), expectedInsertions, fpp);
+    }
+
+}
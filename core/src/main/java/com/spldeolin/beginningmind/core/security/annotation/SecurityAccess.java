@@ -26,6 +26,12 @@ public @interface SecurityAccess {
         // 必须在请求中带上正确的token，才能访问
         TOKEN,
 
+        // 必须在请求头Authorization中带上有效的访问令牌（无状态登录）才能访问
+        BEARER,
+
+        // 必须带上有效的访问令牌且令牌的用户拥有被声明的请求的权限，才能访问
+        BEARER_AND_AUTH,
+
         // 畅通无阻，与没有声明@SecutiyAccess等价，将Mode设置为UNIMPEDED可以起到强调的作用
         UNIMPEDED
     }
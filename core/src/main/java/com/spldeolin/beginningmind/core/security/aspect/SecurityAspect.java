@@ -73,6 +73,15 @@ public class SecurityAspect {
                 // TOKEN
                 tokenChecker.ensureTokenCorrect(WebContext.getRequest(), requestMethod);
                 break;
+            case BEARER:
+                // 访问令牌
+                signedChecker.ensureSignedToken(WebContext.getRequest());
+                break;
+            case BEARER_AND_AUTH:
+                // 访问令牌 与 鉴权
+                permissionChecker.ensurePermission(WebContext.getRequest(),
+                        signedChecker.ensureSignedToken(WebContext.getRequest()));
+                break;
         }
     }
 
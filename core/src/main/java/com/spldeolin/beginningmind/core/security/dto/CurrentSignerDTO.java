@@ -2,14 +2,13 @@ package com.spldeolin.beginningmind.core.security.dto;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
-import java.util.List;
-import com.spldeolin.beginningmind.core.entity.PermissionEntity;
-import com.spldeolin.beginningmind.core.entity.UserEntity;
 import lombok.Data;
 
 /**
  * 当前登录者的信息
  *
+ * 保存在会话中，只包含定位登录者所需的最少信息，用户与权限匹配器由SignerProfileCache提供
+ *
  * @author Deolin
  */
 @Data
@@ -21,9 +20,9 @@ public class CurrentSignerDTO implements Serializable {
     private String sessionId;
 
     /**
-     * 用户
+     * 用户ID
      */
-    private UserEntity user;
+    private Long userId;
 
     /**
      * 登录时间
@@ -31,10 +30,10 @@ public class CurrentSignerDTO implements Serializable {
     private LocalDateTime signedAt;
 
     /**
-     * 被授予的权限
+     * 被授予的权限的摘要，权限变化后由PermissionChecker更新
      */
-    private List<PermissionEntity> permissions;
+    private String permissionHash;
 
     private static final long serialVersionUID = 1L;
 
-}
\ No newline at end of file
+}
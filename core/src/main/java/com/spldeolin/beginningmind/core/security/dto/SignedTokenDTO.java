@@ -0,0 +1,30 @@
+package com.spldeolin.beginningmind.core.security.dto;
+
+import lombok.Data;
+
+/**
+ * 验证通过的访问令牌的内容
+ *
+ * @author Deolin 2026-10-18
+ */
+@Data
+public class SignedTokenDTO {
+
+    /**
+     * 令牌ID，用于撤销
+     */
+    private Long tokenId;
+
+    private Long userId;
+
+    /**
+     * 签发时被授予的权限的摘要
+     */
+    private String permissionHash;
+
+    /**
+     * 失效时间（epoch秒）
+     */
+    private Long expiresAt;
+
+}
@@ -0,0 +1,40 @@
+package com.spldeolin.beginningmind.core.security.dto;
+
+import java.util.List;
+import com.spldeolin.beginningmind.core.entity.UserEntity;
+import com.spldeolin.beginningmind.core.security.PermissionMatcher;
+import lombok.Data;
+
+/**
+ * 登录者的用户与编译后的权限，只缓存在节点内，不进入会话
+ *
+ * @author Deolin 2026-10-18
+ */
+@Data
+public class SignerProfileDTO {
+
+    private UserEntity user;
+
+    /**
+     * 加载时Redis中的权限版本，获取失败时为null
+     */
+    private String permissionVersion;
+
+    /**
+     * 最后一次与Redis中的权限版本比较的时间
+     */
+    private volatile long versionCheckedAt;
+
+    /**
+     * 被授予的权限的摘要
+     */
+    private String permissionHash;
+
+    /**
+     * 被授予的权限的ID
+     */
+    private List<Long> permissionIds;
+
+    private PermissionMatcher permissionMatcher;
+
+}
@@ -0,0 +1,38 @@
+package com.spldeolin.beginningmind.core.security.event;
+
+import java.util.Collection;
+import java.util.Collections;
+import lombok.Getter;
+
+/**
+ * 用户被授予的权限发生了变化，在事务提交后由PermissionChangeListener处理
+ *
+ * @author Deolin 2026-10-18
+ */
+@Getter
+public class PermissionChangedEvent {
+
+    /**
+     * 权限发生变化的用户ID
+     */
+    private final Collection<Long> userIds;
+
+    /**
+     * 无法确定受影响的用户，视为所有用户的权限都发生了变化
+     */
+    private final boolean all;
+
+    private PermissionChangedEvent(Collection<Long> userIds, boolean all) {
+        this.userIds = userIds;
+        this.all = all;
+    }
+
+    public static PermissionChangedEvent of(Collection<Long> userIds) {
+        return new PermissionChangedEvent(userIds, false);
+    }
+
+    public static PermissionChangedEvent ofAll() {
+        return new PermissionChangedEvent(Collections.emptyList(), true);
+    }
+
+}
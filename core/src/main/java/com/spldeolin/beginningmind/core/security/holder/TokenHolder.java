@@ -20,7 +20,7 @@ public class TokenHolder {
     public void holdTokens(List<SecurityAccessTokenEntity> securityAccessTokens) {
         securityAccessTokens
                 .forEach(one -> tokenTable.put(one.getMappingMethod(), one.getMappingPath(), one.getToken()));
-        log.info("Token Holder initialized.");
+        log.info("Token Holder held " + securityAccessTokens.size() + " tokens.");
     }
 
     public String getToken(String mappingMethod, String mappingPath) {
@@ -1,10 +1,11 @@
 package com.spldeolin.beginningmind.core.security.util;
 
 
-import com.spldeolin.beginningmind.core.entity.UserEntity;
 import com.spldeolin.beginningmind.core.security.dto.CurrentSignerDTO;
+import com.spldeolin.beginningmind.core.security.dto.SignedTokenDTO;
 import com.spldeolin.beginningmind.core.service.impl.SignServiceImpl;
 import com.spldeolin.beginningmind.core.util.Sessions;
+import com.spldeolin.beginningmind.core.util.WebContext;
 
 /**
  * 工具类：登录者上下文
@@ -28,36 +29,18 @@ public class SignContext {
     }
 
     /**
-     * @return 当前登录者用户
-     */
-    public static UserEntity user() {
-        CurrentSignerDTO current = current();
-        if (current == null) {
-            return null;
-        }
-        return current.getUser();
-    }
-
-    /**
-     * @return 当前登录者用户ID
+     * @return 当前登录者用户ID，无状态登录时取自访问令牌
      */
     public static Long userId() {
-        UserEntity user = user();
-        if (user == null) {
-            return null;
+        CurrentSignerDTO current = current();
+        if (current != null) {
+            return current.getUserId();
         }
-        return user.getId();
-    }
-
-    /**
-     * @return 当前登录者用户名称
-     */
-    public static String userName() {
-        UserEntity user = user();
-        if (user == null) {
-            return null;
+        SignedTokenDTO signedToken = WebContext.getSignedToken();
+        if (signedToken != null) {
+            return signedToken.getUserId();
         }
-        return user.getName();
+        return null;
     }
 
 }
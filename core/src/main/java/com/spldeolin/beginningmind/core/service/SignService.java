@@ -2,6 +2,7 @@ package com.spldeolin.beginningmind.core.service;
 
 import org.springframework.stereotype.Service;
 import com.spldeolin.beginningmind.core.vo.CaptchaVO;
+import com.spldeolin.beginningmind.core.vo.SignTokenVO;
 import com.spldeolin.beginningmind.core.vo.SignerProfileVO;
 import com.spldeolin.beginningmind.core.input.SignInput;
 
@@ -28,4 +29,19 @@ public interface SignService {
      */
     void signOut();
 
+    /**
+     * 无状态登录，签发访问令牌与刷新令牌
+     */
+    SignTokenVO signInForToken(SignInput input);
+
+    /**
+     * 使用刷新令牌重新签发访问令牌与刷新令牌，旧的刷新令牌随之失效
+     */
+    SignTokenVO refreshToken(String refreshToken);
+
+    /**
+     * 撤销当前请求的访问令牌与刷新令牌（无状态登录的登出）
+     */
+    void revokeToken(String refreshToken);
+
 }
\ No newline at end of file
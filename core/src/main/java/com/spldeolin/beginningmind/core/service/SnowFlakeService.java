@@ -1,5 +1,8 @@
 package com.spldeolin.beginningmind.core.service;
 
+import java.util.stream.LongStream;
+import com.spldeolin.beginningmind.core.vo.SnowFlakeStatsVO;
+
 /**
  * Twitter的“雪花”算法
  * <p>
@@ -21,6 +24,31 @@ public interface SnowFlakeService {
      */
     long nextId();
 
+    /**
+     * 批量产生ID
+     * <p>
+     * 同一毫秒内的序列号区间通过一次CAS整段预留，适用于批量插入前预先分配ID
+     *
+     * @param n 需要的ID个数
+     * @return 严格递增的ID
+     */
+    long[] nextIds(int n);
+
+    /**
+     * 批量产生ID
+     *
+     * @param n 需要的ID个数
+     * @return 严格递增的ID
+     */
+    default LongStream nextIdStream(int n) {
+        return LongStream.of(nextIds(n));
+    }
+
+    /**
+     * 时钟回拨容忍情况的统计
+     */
+    SnowFlakeStatsVO stats();
+
 }
 
 
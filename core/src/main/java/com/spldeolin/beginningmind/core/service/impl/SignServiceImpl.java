@@ -3,11 +3,9 @@ package com.spldeolin.beginningmind.core.service.impl;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 import javax.imageio.ImageIO;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.codec.digest.DigestUtils;
@@ -17,13 +15,18 @@ import org.springframework.stereotype.Service;
 import com.google.code.kaptcha.Producer;
 import com.spldeolin.beginningmind.core.common.BizException;
 import com.spldeolin.beginningmind.core.vo.CaptchaVO;
+import com.spldeolin.beginningmind.core.vo.SignTokenVO;
 import com.spldeolin.beginningmind.core.vo.SignerProfileVO;
-import com.spldeolin.beginningmind.core.entity.PermissionEntity;
 import com.spldeolin.beginningmind.core.entity.UserEntity;
 import com.spldeolin.beginningmind.core.input.SignInput;
+import com.spldeolin.beginningmind.core.security.AccessTokens;
+import com.spldeolin.beginningmind.core.security.RefreshTokens;
+import com.spldeolin.beginningmind.core.security.SignerProfileCache;
+import com.spldeolin.beginningmind.core.security.TokenRevocations;
 import com.spldeolin.beginningmind.core.security.dto.CurrentSignerDTO;
+import com.spldeolin.beginningmind.core.security.dto.SignedTokenDTO;
+import com.spldeolin.beginningmind.core.security.dto.SignerProfileDTO;
 import com.spldeolin.beginningmind.core.security.util.SignContext;
-import com.spldeolin.beginningmind.core.service.PermissionService;
 import com.spldeolin.beginningmind.core.service.SignService;
 import com.spldeolin.beginningmind.core.service.UserService;
 import com.spldeolin.beginningmind.core.util.Sessions;
@@ -44,7 +47,16 @@ public class SignServiceImpl implements SignService {
     private UserService userService;
 
     @Autowired
-    private PermissionService permissionService;
+    private SignerProfileCache signerProfileCache;
+
+    @Autowired
+    private AccessTokens accessTokens;
+
+    @Autowired
+    private RefreshTokens refreshTokens;
+
+    @Autowired
+    private TokenRevocations tokenRevocations;
 
     @Autowired
     private Producer kaptchaProducer;
@@ -81,9 +93,8 @@ public class SignServiceImpl implements SignService {
         // 获取用户，同时进行验证码、重复登录、用户名密码校验
         UserEntity user = signCheck(input);
 
-        // 获取权限一览
-        List<PermissionEntity> permissions = permissionService.listGrantedPermission(user.getId());
-        List<Long> permissionIds = permissions.stream().map(PermissionEntity::getId).collect(Collectors.toList());
+        // 获取权限一览，编译权限匹配器
+        SignerProfileDTO profile = signerProfileCache.reload(user.getId());
 
         // 获取会话ID
         String sessionId = WebContext.getSession().getId();
@@ -91,14 +102,14 @@ public class SignServiceImpl implements SignService {
         // 用户信息存入Session
         CurrentSignerDTO currentSignerDTO = new CurrentSignerDTO();
         currentSignerDTO.setSessionId(sessionId);
-        currentSignerDTO.setUser(user);
+        currentSignerDTO.setUserId(user.getId());
         currentSignerDTO.setSignedAt(LocalDateTime.now());
-        currentSignerDTO.setPermissions(permissions);
+        currentSignerDTO.setPermissionHash(profile.getPermissionHash());
 
         Sessions.set(SIGNER_SESSION_KEY, currentSignerDTO);
 
         // profile
-        return new SignerProfileVO(user.getName(), permissionIds);
+        return new SignerProfileVO(user.getName(), profile.getPermissionIds());
     }
 
     /**
@@ -109,6 +120,55 @@ public class SignServiceImpl implements SignService {
         Sessions.remove(SIGNER_SESSION_KEY);
     }
 
+    /**
+     * 无状态登录
+     */
+    @Override
+    public SignTokenVO signInForToken(SignInput input) {
+        // 获取用户，同时进行验证码、重复登录、用户名密码校验
+        UserEntity user = signCheck(input);
+
+        // 获取权限一览，编译权限匹配器
+        SignerProfileDTO profile = signerProfileCache.reload(user.getId());
+
+        return issueTokens(profile);
+    }
+
+    @Override
+    public SignTokenVO refreshToken(String refreshToken) {
+        Long userId = refreshTokens.consume(refreshToken);
+        if (userId == null) {
+            throw new BizException("刷新令牌无效或已过期，请重新登录");
+        }
+        return issueTokens(signerProfileCache.getCurrent(userId));
+    }
+
+    @Override
+    public void revokeToken(String refreshToken) {
+        SignedTokenDTO signedToken = WebContext.getSignedToken();
+        if (signedToken == null) {
+            return;
+        }
+        tokenRevocations.revoke(signedToken.getTokenId(), signedToken.getExpiresAt());
+        // 只删除属于当前用户的刷新令牌
+        if (refreshToken != null) {
+            refreshTokens.delete(refreshToken, signedToken.getUserId());
+        }
+    }
+
+    private SignTokenVO issueTokens(SignerProfileDTO profile) {
+        UserEntity user = profile.getUser();
+        long accessExpiresAt = accessTokens.nextExpiresAt();
+
+        SignTokenVO vo = new SignTokenVO();
+        vo.setAccessToken(accessTokens.issue(user.getId(), profile.getPermissionHash(), accessExpiresAt));
+        vo.setAccessExpiresAt(accessExpiresAt);
+        vo.setRefreshToken(refreshTokens.create(user.getId()));
+        vo.setUserName(user.getName());
+        vo.setPermissionIds(profile.getPermissionIds());
+        return vo;
+    }
+
     private UserEntity signCheck(SignInput input) {
         // 验证码校验
         String token = input.getCaptchaToken();
@@ -1,22 +1,47 @@
 package com.spldeolin.beginningmind.core.service.impl;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import com.spldeolin.beginningmind.core.CoreProperties;
+import com.spldeolin.beginningmind.core.CoreProperties.SnowFlakeProp;
+import com.spldeolin.beginningmind.core.redis.RedisWorkerLease;
 import com.spldeolin.beginningmind.core.service.SnowFlakeService;
 import com.spldeolin.beginningmind.core.util.Times;
+import com.spldeolin.beginningmind.core.vo.SnowFlakeStatsVO;
+import lombok.extern.log4j.Log4j2;
 
 /**
+ * 无锁实现
+ *
+ * 上一次的时间戳与序列号打包在同一个AtomicLong中（高位时间戳，低12位序列号），通过CAS推进，
+ * 批量获取时一次CAS预留整段序列号
+ *
+ * 容忍时钟回拨模式（core.snow-flake.clock-backwards-tolerant）下，时钟回拨或序列号耗尽时不再抛出异常或等待，
+ * 而是沿用/推进上一次的时间戳（借用逻辑上的未来时间），借用窗口超过max-borrow-millis时才自旋等待时钟追上
+ *
+ * 租用worker ID模式（core.snow-flake.lease-worker-id）下，启动时从Redis租用一个空闲的(datacenter, machine)槽位，
+ * 定时续约，租约失效期间拒绝生成ID
+ *
  * @author Deolin 2018/11/12
  */
 @Service
+@Log4j2
 public class SnowFlakeServiceImpl implements SnowFlakeService {
 
     @Autowired
     private CoreProperties coreProperties;
 
+    @Autowired(required = false)
+    private RedisWorkerLease redisWorkerLease;
+
     /**
      * 起始的时间戳 2018-11-12 13:27:37
      */
@@ -67,22 +92,103 @@ public class SnowFlakeServiceImpl implements SnowFlakeService {
      */
     private final static long TIMESTMP_LEFT = DATACENTER_LEFT + DATACENTER_BIT;
 
-    private long datacenterId;
+    /**
+     * (datacenter, machine)槽位的总数
+     */
+    private final static int WORKER_SLOTS = (int) ((MAX_DATACENTER_NUM + 1) * (MAX_MACHINE_NUM + 1));
+
+    /**
+     * 槽位租约key的前缀
+     */
+    private final static String WORKER_LEASE_NAMESPACE = "beginningMind:snowFlake:worker:";
+
+    /**
+     * 数据中心部分与机器标识部分，租用模式下续约失败重新租用时会改变
+     */
+    private volatile long workerBits;
+
+    /**
+     * 是否从Redis租用worker ID
+     */
+    private boolean leaseWorkerId;
+
+    /**
+     * 租约时长（毫秒）
+     */
+    private long leaseMillis;
+
+    /**
+     * 代表本实例的唯一值
+     */
+    private final String leaseOwner = UUID.randomUUID().toString();
+
+    /**
+     * 当前租用的槽位
+     */
+    private volatile int leasedSlot = -1;
+
+    /**
+     * 租约在本地的失效时刻（System.nanoTime）
+     */
+    private volatile long leaseDeadlineNanos;
 
-    private long machineId;
+    /**
+     * 是否容忍时钟回拨
+     */
+    private boolean clockBackwardsTolerant;
 
-    private long sequence = 0L;
+    /**
+     * 允许借用的最大窗口（毫秒）
+     */
+    private long maxBorrowMillis;
 
     /**
-     * 上一次的时间
+     * 上一次的时间（相对于START_STMP）与序列号
+     *
+     * (lastStmp - START_STMP) << SEQUENCE_BIT | sequence
      */
-    private long lastStmp = -1L;
+    private final AtomicLong lastStmpAndSequence = new AtomicLong(0L);
+
+    /**
+     * 借用的毫秒数（推进到时钟尚未到达的毫秒的次数）
+     */
+    private final LongAdder borrowedMillis = new LongAdder();
+
+    /**
+     * 借用窗口超限时的自旋次数
+     */
+    private final LongAdder backpressureSpins = new LongAdder();
+
+    /**
+     * 同一毫秒内序列号耗尽的次数
+     */
+    private final LongAdder sequenceExhausted = new LongAdder();
 
     @PostConstruct
     @Override
     public void initDatacenterAndMachine() {
-        long datacenterId = coreProperties.getSnowFlake().getDatacenterId();
-        long machineId = coreProperties.getSnowFlake().getMachineId();
+        SnowFlakeProp props = coreProperties.getSnowFlake();
+        this.clockBackwardsTolerant = Boolean.TRUE.equals(props.getClockBackwardsTolerant());
+        this.maxBorrowMillis = props.getMaxBorrowMillis() == null ? 0L : props.getMaxBorrowMillis();
+        this.leaseWorkerId = Boolean.TRUE.equals(props.getLeaseWorkerId());
+
+        if (leaseWorkerId) {
+            // 租用模式下datacenter-id与machine-id由槽位决定，忽略配置值
+            if (props.getDatacenterId() != null || props.getMachineId() != null) {
+                log.info("lease-worker-id已开启，忽略配置的datacenter-id与machine-id");
+            }
+            this.leaseMillis = props.getLeaseMillis();
+            if (!leaseSlot()) {
+                throw new IllegalStateException("没有空闲的worker ID槽位");
+            }
+            return;
+        }
+
+        if (props.getDatacenterId() == null || props.getMachineId() == null) {
+            throw new IllegalArgumentException("未配置core.snow-flake.datacenter-id或core.snow-flake.machine-id");
+        }
+        long datacenterId = props.getDatacenterId();
+        long machineId = props.getMachineId();
 
         if (datacenterId > MAX_DATACENTER_NUM || datacenterId < 0) {
             throw new IllegalArgumentException("datacenterId can't be greater than MAX_DATACENTER_NUM or less than 0");
@@ -91,50 +197,227 @@ public class SnowFlakeServiceImpl implements SnowFlakeService {
             throw new IllegalArgumentException("machineId can't be greater than MAX_MACHINE_NUM or less than 0");
         }
 
-        this.datacenterId = datacenterId;
-        this.machineId = machineId;
+        this.workerBits = datacenterId << DATACENTER_LEFT | machineId << MACHINE_LEFT;
+    }
+
+    /**
+     * 续约worker ID租约，续约失败（槽位已过期或被占用）时重新租用一个槽位
+     */
+    @Scheduled(fixedDelayString = "${core.snow-flake.lease-heartbeat-millis:10000}")
+    public void renewLease() {
+        if (!leaseWorkerId) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (leasedSlot >= 0
+                    && redisWorkerLease.renew(WORKER_LEASE_NAMESPACE, leasedSlot, leaseOwner, leaseMillis)) {
+                leaseDeadlineNanos = start + TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+                return;
+            }
+            log.warn("worker ID槽位[{}]的租约已丢失，尝试重新租用", leasedSlot);
+            if (!leaseSlot()) {
+                log.error("没有空闲的worker ID槽位，租约失效后将拒绝生成ID");
+            }
+        } catch (Exception e) {
+            log.error("worker ID续约失败", e);
+        }
+    }
+
+    @PreDestroy
+    public void releaseLease() {
+        if (leaseWorkerId && leasedSlot >= 0) {
+            redisWorkerLease.release(WORKER_LEASE_NAMESPACE, leasedSlot, leaseOwner);
+        }
+    }
+
+    private boolean leaseSlot() {
+        long start = System.nanoTime();
+        int slot = redisWorkerLease.acquire(WORKER_LEASE_NAMESPACE, WORKER_SLOTS, leaseOwner, leaseMillis);
+        if (slot < 0) {
+            return false;
+        }
+
+        long datacenterId = slot >>> MACHINE_BIT;
+        long machineId = slot & MAX_MACHINE_NUM;
+        this.workerBits = datacenterId << DATACENTER_LEFT | machineId << MACHINE_LEFT;
+        this.leasedSlot = slot;
+        this.leaseDeadlineNanos = start + TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+        log.info("租用worker ID槽位[{}] datacenterId={} machineId={}", slot, datacenterId, machineId);
+        return true;
     }
 
     /**
      * 产生下一个ID
      */
     @Override
-    public synchronized long nextId() {
-        long currStmp = getNewstmp();
-        if (currStmp < lastStmp) {
-            throw new RuntimeException("Clock moved backwards.  Refusing to generate id");
+    public long nextId() {
+        while (true) {
+            long last = lastStmpAndSequence.get();
+            long currStmp = decideStmp(last);
+            if (currStmp < 0) {
+                continue;
+            }
+
+            long sequence;
+            if (currStmp == last >>> SEQUENCE_BIT) {
+                //相同毫秒内，序列号自增
+                sequence = (last & MAX_SEQUENCE) + 1;
+            } else {
+                //不同毫秒内，序列号置为0
+                sequence = 0L;
+            }
+
+            if (lastStmpAndSequence.compareAndSet(last, currStmp << SEQUENCE_BIT | sequence)) {
+                return assemble(currStmp, sequence);
+            }
+        }
+    }
+
+    /**
+     * 批量产生ID
+     */
+    @Override
+    public long[] nextIds(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n不应小于0");
+        }
+
+        long[] ids = new long[n];
+        int filled = 0;
+        while (filled < n) {
+            filled += reserve(ids, filled);
+        }
+        return ids;
+    }
+
+    @Override
+    public SnowFlakeStatsVO stats() {
+        long lastStmp = lastStmpAndSequence.get() >>> SEQUENCE_BIT;
+        long currentBorrowed = Math.max(0L, lastStmp - (getNewstmp() - START_STMP));
+
+        SnowFlakeStatsVO stats = new SnowFlakeStatsVO();
+        stats.setWorkerId(workerBits >>> MACHINE_LEFT);
+        stats.setClockBackwardsTolerant(clockBackwardsTolerant);
+        stats.setMaxBorrowMillis(maxBorrowMillis);
+        stats.setCurrentBorrowedMillis(currentBorrowed);
+        stats.setBorrowedMillis(borrowedMillis.sum());
+        stats.setBackpressureSpins(backpressureSpins.sum());
+        stats.setSequenceExhausted(sequenceExhausted.sum());
+        return stats;
+    }
+
+    /**
+     * 在当前毫秒内一次性预留尽可能多的序列号，填入ids
+     *
+     * @return 本次预留的个数
+     */
+    private int reserve(long[] ids, int from) {
+        while (true) {
+            long last = lastStmpAndSequence.get();
+            long currStmp = decideStmp(last);
+            if (currStmp < 0) {
+                continue;
+            }
+
+            long firstSequence;
+            if (currStmp == last >>> SEQUENCE_BIT) {
+                firstSequence = (last & MAX_SEQUENCE) + 1;
+            } else {
+                firstSequence = 0L;
+            }
+
+            int count = (int) Math.min(ids.length - from, MAX_SEQUENCE - firstSequence + 1);
+            long lastSequence = firstSequence + count - 1;
+            if (lastStmpAndSequence.compareAndSet(last, currStmp << SEQUENCE_BIT | lastSequence)) {
+                for (int i = 0; i < count; i++) {
+                    ids[from + i] = assemble(currStmp, firstSequence + i);
+                }
+                return count;
+            }
+        }
+    }
+
+    /**
+     * 决定本次分配使用的时间戳（相对于START_STMP）
+     *
+     * 必须先读取状态再读取时钟，否则其他线程推进的时间戳会被误判为时钟回拨
+     *
+     * @param last 分配前读取的状态
+     * @return 时间戳，等待过时钟则返回-1，调用方需重新读取状态
+     */
+    private long decideStmp(long last) {
+        if (leaseWorkerId && System.nanoTime() - leaseDeadlineNanos > 0) {
+            throw new IllegalStateException("worker ID租约已失效，拒绝生成ID");
         }
 
-        if (currStmp == lastStmp) {
-            //相同毫秒内，序列号自增
-            sequence = (sequence + 1) & MAX_SEQUENCE;
-            //同一毫秒的序列数已经达到最大
-            if (sequence == 0L) {
-                currStmp = getNextMill();
+        long lastStmp = last >>> SEQUENCE_BIT;
+        boolean exhausted = (last & MAX_SEQUENCE) == MAX_SEQUENCE;
+        long currStmp = getNewstmp() - START_STMP;
+
+        if (currStmp > lastStmp) {
+            return currStmp;
+        }
+
+        if (currStmp < lastStmp) {
+            if (!clockBackwardsTolerant) {
+                throw new RuntimeException("Clock moved backwards.  Refusing to generate id");
+            }
+            // 回拨幅度超过借用窗口，等待时钟追上
+            if (lastStmp - currStmp > maxBorrowMillis) {
+                backpressure(lastStmp - maxBorrowMillis);
+                return -1;
             }
-        } else {
-            //不同毫秒内，序列号置为0
-            sequence = 0L;
         }
 
-        lastStmp = currStmp;
+        // 时钟未前进或已回拨，沿用上一次的时间戳
+        if (!exhausted) {
+            return lastStmp;
+        }
 
+        //同一毫秒的序列数已经达到最大
+        sequenceExhausted.increment();
+        if (!clockBackwardsTolerant) {
+            getNextMill(lastStmp);
+            return -1;
+        }
+        // 借用下一毫秒
+        if (lastStmp + 1 - currStmp <= maxBorrowMillis) {
+            borrowedMillis.increment();
+            return lastStmp + 1;
+        }
+        backpressure(lastStmp + 1 - maxBorrowMillis);
+        return -1;
+    }
+
+    private long assemble(long stmp, long sequence) {
         //时间戳部分
         //数据中心部分
         //机器标识部分
         //序列号部分
-        return (currStmp - START_STMP) << TIMESTMP_LEFT
-                | datacenterId << DATACENTER_LEFT
-                | machineId << MACHINE_LEFT
+        return stmp << TIMESTMP_LEFT
+                | workerBits
                 | sequence;
     }
 
-    private long getNextMill() {
-        long mill = getNewstmp();
-        while (mill <= lastStmp) {
-            mill = getNewstmp();
+    /**
+     * 等待时钟走到lastStmp的下一毫秒
+     */
+    private void getNextMill(long lastStmp) {
+        while (getNewstmp() - START_STMP <= lastStmp) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * 等待时钟走到targetStmp，使借用窗口回到max-borrow-millis以内
+     */
+    private void backpressure(long targetStmp) {
+        while (getNewstmp() - START_STMP < targetStmp) {
+            backpressureSpins.increment();
+            Thread.yield();
         }
-        return mill;
     }
 
     private long getNewstmp() {
@@ -1,17 +1,114 @@
 package com.spldeolin.beginningmind.core.service.impl;
 
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.spldeolin.beginningmind.core.common.BulkWriteResult;
 import com.spldeolin.beginningmind.core.common.CommonServiceImpl;
 import com.spldeolin.beginningmind.core.entity.User2permissionEntity;
+import com.spldeolin.beginningmind.core.security.event.PermissionChangedEvent;
 import com.spldeolin.beginningmind.core.service.User2permissionService;
 
 /**
  * 用户与权限的关联关系
  *
+ * 关联关系变化时，发布PermissionChangedEvent
+ *
  * @author Deolin 2018/12/07
  */
 @Service
 public class User2permissionServiceImpl extends CommonServiceImpl<User2permissionEntity> implements
         User2permissionService {
 
-}
\ No newline at end of file
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void create(User2permissionEntity entity) {
+        super.create(entity);
+        eventPublisher.publishEvent(PermissionChangedEvent.of(userIdsOf(Lists.newArrayList(entity))));
+    }
+
+    @Override
+    public void create(Collection<User2permissionEntity> entities) {
+        super.create(entities);
+        eventPublisher.publishEvent(PermissionChangedEvent.of(userIdsOf(entities)));
+    }
+
+    @Override
+    public boolean update(User2permissionEntity entity) {
+        Set<Long> userIds = affectedUserIds(Lists.newArrayList(entity));
+        boolean result = super.update(entity);
+        eventPublisher.publishEvent(PermissionChangedEvent.of(userIds));
+        return result;
+    }
+
+    @Override
+    public int update(User2permissionEntity entity, Wrapper<User2permissionEntity> query) {
+        int result = super.update(entity, query);
+        eventPublisher.publishEvent(PermissionChangedEvent.ofAll());
+        return result;
+    }
+
+    @Override
+    public BulkWriteResult update(Collection<User2permissionEntity> entities) {
+        Set<Long> userIds = affectedUserIds(entities);
+        BulkWriteResult result = super.update(entities);
+        eventPublisher.publishEvent(PermissionChangedEvent.of(userIds));
+        return result;
+    }
+
+    @Override
+    public BulkWriteResult upsert(Collection<User2permissionEntity> entities) {
+        Set<Long> userIds = affectedUserIds(entities);
+        BulkWriteResult result = super.upsert(entities);
+        eventPublisher.publishEvent(PermissionChangedEvent.of(userIds));
+        return result;
+    }
+
+    @Override
+    public boolean delete(Long id) {
+        Set<Long> userIds = storedUserIdsOf(Lists.newArrayList(id));
+        boolean result = super.delete(id);
+        eventPublisher.publishEvent(PermissionChangedEvent.of(userIds));
+        return result;
+    }
+
+    @Override
+    public boolean delete(Collection<Long> ids) {
+        Set<Long> userIds = storedUserIdsOf(ids);
+        boolean result = super.delete(ids);
+        eventPublisher.publishEvent(PermissionChangedEvent.of(userIds));
+        return result;
+    }
+
+    /**
+     * 修改前后的用户ID
+     */
+    private Set<Long> affectedUserIds(Collection<User2permissionEntity> entities) {
+        Set<Long> userIds = userIdsOf(entities);
+        userIds.addAll(storedUserIdsOf(entities.stream().map(User2permissionEntity::getId).filter(Objects::nonNull)
+                .collect(Collectors.toList())));
+        return userIds;
+    }
+
+    private Set<Long> storedUserIdsOf(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Sets.newHashSet();
+        }
+        return userIdsOf(list(ids));
+    }
+
+    private static Set<Long> userIdsOf(Collection<User2permissionEntity> entities) {
+        return entities.stream().map(User2permissionEntity::getUserId).filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+}
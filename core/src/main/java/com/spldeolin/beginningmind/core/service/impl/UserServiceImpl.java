@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.spldeolin.beginningmind.core.common.BizException;
 import com.spldeolin.beginningmind.core.common.CommonServiceImpl;
+import com.spldeolin.beginningmind.core.common.annotation.EntityCached;
 import com.spldeolin.beginningmind.core.constant.CoupledConstant;
 import com.spldeolin.beginningmind.core.dao.UserMapper;
 import com.spldeolin.beginningmind.core.entity.UserEntity;
@@ -20,6 +21,7 @@ import com.spldeolin.beginningmind.core.util.StringRandomUtils;
  * @author Deolin 2018/11/12
  */
 @Service
+@EntityCached
 public class UserServiceImpl extends CommonServiceImpl<UserEntity> implements UserService {
 
     @Autowired
@@ -0,0 +1,87 @@
+package com.spldeolin.beginningmind.core.util;
+
+import java.net.InetAddress;
+import java.util.Collection;
+import java.util.List;
+import javax.servlet.http.HttpServletRequest;
+import com.google.common.base.Splitter;
+import com.google.common.net.InetAddresses;
+
+/**
+ * 请求者IP
+ *
+ * @author Deolin 2026-10-18
+ */
+public class Ips {
+
+    private static final Splitter COMMA = Splitter.on(',').trimResults().omitEmptyStrings();
+
+    /**
+     * 获取请求者IP
+     * <pre>
+     * 连接的远端地址不是受信任的代理时，直接使用远端地址，忽略一切可由客户端伪造的请求头；
+     * 否则从右向左遍历X-Forwarded-For，跳过受信任的代理，取第一个不受信任的地址
+     * </pre>
+     *
+     * @param trustedProxies 受信任的反向代理，IP或CIDR（如10.0.0.0/8）
+     */
+    public static String getClientIp(HttpServletRequest request, Collection<String> trustedProxies) {
+        String ip = request.getRemoteAddr();
+        if (trustedProxies == null || trustedProxies.isEmpty() || !isTrusted(ip, trustedProxies)) {
+            return ip;
+        }
+
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null) {
+            return ip;
+        }
+        List<String> hops = COMMA.splitToList(forwardedFor);
+        for (int i = hops.size() - 1; i >= 0; i--) {
+            String hop = hops.get(i);
+            if (!InetAddresses.isInetAddress(hop)) {
+                // 无法解析的地址不再向左追溯，左侧的内容都不可信
+                return ip;
+            }
+            ip = hop;
+            if (!isTrusted(hop, trustedProxies)) {
+                return hop;
+            }
+        }
+        return ip;
+    }
+
+    private static boolean isTrusted(String ip, Collection<String> trustedProxies) {
+        if (!InetAddresses.isInetAddress(ip)) {
+            return false;
+        }
+        InetAddress address = InetAddresses.forString(ip);
+        for (String trusted : trustedProxies) {
+            if (matches(address, trusted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(InetAddress address, String ipOrCidr) {
+        int slash = ipOrCidr.indexOf('/');
+        String network = slash == -1 ? ipOrCidr : ipOrCidr.substring(0, slash);
+        if (!InetAddresses.isInetAddress(network)) {
+            return false;
+        }
+        byte[] expected = InetAddresses.forString(network).getAddress();
+        byte[] actual = address.getAddress();
+        if (expected.length != actual.length) {
+            return false;
+        }
+        int prefixLength = slash == -1 ? expected.length * 8 : Integer.parseInt(ipOrCidr.substring(slash + 1));
+        for (int i = 0; i < expected.length && prefixLength > 0; i++, prefixLength -= 8) {
+            int mask = prefixLength >= 8 ? 0xFF : 0xFF << (8 - prefixLength) & 0xFF;
+            if ((expected[i] & mask) != (actual[i] & mask)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.spldeolin.beginningmind.core.util;
 
+import javax.servlet.http.HttpSession;
+
 /**
  * 工具类：简化向HttpSession对象存取attribute的代码量
  *
@@ -10,25 +12,32 @@ package com.spldeolin.beginningmind.core.util;
 public class Sessions {
 
     /**
-     * 将k-v存入Session，只要Session不失效，该k-v就不会失效
+     * 将k-v存入Session，只要Session不失效，该k-v就不会失效；Session不存在时创建
      */
     public static void set(String key, Object value) {
         WebContext.getSession().setAttribute(key, value);
     }
 
     /**
-     * 获取v，如果该k-v已经失效，返回null
+     * 获取v，如果该k-v已经失效或是Session不存在，返回null
      */
     @SuppressWarnings("unchecked")
     public static <T> T get(String key) {
-        return (T) WebContext.getSession().getAttribute(key);
+        HttpSession session = WebContext.getSessionIfExists();
+        if (session == null) {
+            return null;
+        }
+        return (T) session.getAttribute(key);
     }
 
     /**
-     * 移除k-v
+     * 移除k-v，Session不存在时什么也不做
      */
     public static void remove(String key) {
-        WebContext.getSession().removeAttribute(key);
+        HttpSession session = WebContext.getSessionIfExists();
+        if (session != null) {
+            session.removeAttribute(key);
+        }
     }
 
 }
@@ -4,12 +4,15 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import com.spldeolin.beginningmind.core.filter.dto.RequestTrackDTO;
+import com.spldeolin.beginningmind.core.security.dto.SignedTokenDTO;
 
 /**
  * Web请求的上下文
  *
  * 基于ThreadLocal，用于静态获取当前请求的请求轨迹、request、response和session
  *
+ * session在第一次需要时才从request获取，不需要session的请求（匿名、TOKEN）不会创建session
+ *
  * 获取失败，当前线程并不是Web请求线程，调用getXXX方法时将会抛出异常
  *
  * @author Deolin 2018/12/01
@@ -24,6 +27,16 @@ public class WebContext {
 
     private static final ThreadLocal<HttpSession> SESSION = new ThreadLocal<>();
 
+    /**
+     * 当前请求携带的、验证通过的访问令牌
+     */
+    private static final ThreadLocal<SignedTokenDTO> SIGNED_TOKEN = new ThreadLocal<>();
+
+    /**
+     * 当前请求是否已经写过主库，写过之后的读取也走主库（read-your-writes）
+     */
+    private static final ThreadLocal<Boolean> WROTE_PRIMARY = new ThreadLocal<>();
+
     public static void setRequestTrack(RequestTrackDTO track) {
         REQUEST_TRACK.set(track);
     }
@@ -72,14 +85,28 @@ public class WebContext {
         RESPONSE.remove();
     }
 
-    public static void setSession(HttpSession session) {
-        SESSION.set(session);
+    /**
+     * 获取session，不存在时创建
+     */
+    public static HttpSession getSession() {
+        HttpSession session = SESSION.get();
+        if (session == null) {
+            session = getRequest().getSession();
+            SESSION.set(session);
+        }
+        return session;
     }
 
-    public static HttpSession getSession() {
+    /**
+     * 获取session，不存在时返回null
+     */
+    public static HttpSession getSessionIfExists() {
         HttpSession session = SESSION.get();
         if (session == null) {
-            throw new RuntimeException("获取失败，当前线程并不是Web请求线程");
+            session = getRequest().getSession(false);
+            if (session != null) {
+                SESSION.set(session);
+            }
         }
         return session;
     }
@@ -88,4 +115,36 @@ public class WebContext {
         SESSION.remove();
     }
 
+    public static void setSignedToken(SignedTokenDTO signedToken) {
+        SIGNED_TOKEN.set(signedToken);
+    }
+
+    /**
+     * @return 当前请求没有携带访问令牌，或是还没有验证时返回null
+     */
+    public static SignedTokenDTO getSignedToken() {
+        return SIGNED_TOKEN.get();
+    }
+
+    public static void removeSignedToken() {
+        SIGNED_TOKEN.remove();
+    }
+
+    /**
+     * 标记当前请求写过主库，当前线程不是Web请求线程时什么也不做
+     */
+    public static void markWrotePrimary() {
+        if (REQUEST.get() != null) {
+            WROTE_PRIMARY.set(true);
+        }
+    }
+
+    public static boolean hasWrittenPrimary() {
+        return Boolean.TRUE.equals(WROTE_PRIMARY.get());
+    }
+
+    public static void removeWrotePrimary() {
+        WROTE_PRIMARY.remove();
+    }
+
 }
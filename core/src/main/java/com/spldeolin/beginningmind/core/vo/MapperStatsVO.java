@@ -0,0 +1,41 @@
+package com.spldeolin.beginningmind.core.vo;
+
+import java.io.Serializable;
+import lombok.Data;
+
+/**
+ * 一个Mapper方法的调用统计，耗时单位均为微秒
+ *
+ * @author Deolin 2026-10-18
+ */
+@Data
+public class MapperStatsVO implements Serializable {
+
+    /**
+     * 累计调用次数
+     */
+    private Long count;
+
+    /**
+     * 累计抛出异常的次数
+     */
+    private Long errors;
+
+    /**
+     * 上一次统计至今的每秒调用次数
+     */
+    private Double qps;
+
+    private Double mean;
+
+    private Long p50;
+
+    private Long p99;
+
+    private Long p999;
+
+    private Long max;
+
+    private static final long serialVersionUID = 1L;
+
+}
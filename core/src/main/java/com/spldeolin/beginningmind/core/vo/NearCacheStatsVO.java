@@ -0,0 +1,36 @@
+package com.spldeolin.beginningmind.core.vo;
+
+import java.io.Serializable;
+import lombok.Data;
+
+/**
+ * 一级缓存中某个key前缀的统计
+ *
+ * @author Deolin 2026-10-18
+ */
+@Data
+public class NearCacheStatsVO implements Serializable {
+
+    /**
+     * 命中次数
+     */
+    private Long hits;
+
+    /**
+     * 未命中次数（回源Redis）
+     */
+    private Long misses;
+
+    /**
+     * 因容量或过期被淘汰的个数
+     */
+    private Long evictions;
+
+    /**
+     * 命中率
+     */
+    private Double hitRate;
+
+    private static final long serialVersionUID = 1L;
+
+}
@@ -0,0 +1,36 @@
+package com.spldeolin.beginningmind.core.vo;
+
+import java.io.Serializable;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * 无状态登录的令牌
+ *
+ * @author Deolin 2026-10-18
+ */
+@Data
+public class SignTokenVO implements Serializable {
+
+    /**
+     * 访问令牌，请求时放在请求头Authorization: Bearer xxx中
+     */
+    private String accessToken;
+
+    /**
+     * 访问令牌的失效时间（epoch秒）
+     */
+    private Long accessExpiresAt;
+
+    /**
+     * 刷新令牌，只能使用一次
+     */
+    private String refreshToken;
+
+    private String userName;
+
+    private List<Long> permissionIds;
+
+    private static final long serialVersionUID = 1L;
+
+}
@@ -0,0 +1,51 @@
+package com.spldeolin.beginningmind.core.vo;
+
+import java.io.Serializable;
+import lombok.Data;
+
+/**
+ * 雪花算法的时钟回拨容忍统计
+ *
+ * @author Deolin 2026-10-18
+ */
+@Data
+public class SnowFlakeStatsVO implements Serializable {
+
+    /**
+     * worker ID（数据中心ID << 5 | 机器ID）
+     */
+    private Long workerId;
+
+    /**
+     * 是否容忍时钟回拨
+     */
+    private Boolean clockBackwardsTolerant;
+
+    /**
+     * 允许借用的最大窗口（毫秒）
+     */
+    private Long maxBorrowMillis;
+
+    /**
+     * 当前超前于时钟的毫秒数
+     */
+    private Long currentBorrowedMillis;
+
+    /**
+     * 累计借用的毫秒数
+     */
+    private Long borrowedMillis;
+
+    /**
+     * 累计因借用窗口超限而自旋的次数
+     */
+    private Long backpressureSpins;
+
+    /**
+     * 累计序列号耗尽的次数
+     */
+    private Long sequenceExhausted;
+
+    private static final long serialVersionUID = 1L;
+
+}
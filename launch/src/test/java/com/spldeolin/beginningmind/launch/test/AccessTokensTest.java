@@ -0,0 +1,103 @@
+package com.spldeolin.beginningmind.launch.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Base64;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.google.common.base.Strings;
+import com.spldeolin.beginningmind.core.CoreProperties;
+import com.spldeolin.beginningmind.core.CoreProperties.SignedTokenProp;
+import com.spldeolin.beginningmind.core.security.AccessTokens;
+import com.spldeolin.beginningmind.core.security.TokenRevocations;
+import com.spldeolin.beginningmind.core.security.dto.SignedTokenDTO;
+import com.spldeolin.beginningmind.core.security.exception.UnsignedException;
+import com.spldeolin.beginningmind.core.service.SnowFlakeService;
+
+/**
+ * @author Deolin 2026-10-18
+ */
+public class AccessTokensTest {
+
+    private static final String PERMISSION_HASH = Strings.repeat("ab", 32);
+
+    private AccessTokens accessTokens;
+
+    private TokenRevocations tokenRevocations;
+
+    @Before
+    public void init() {
+        SignedTokenProp props = new SignedTokenProp();
+        props.setSecret(Base64.getEncoder().encodeToString(new byte[32]));
+        CoreProperties coreProperties = new CoreProperties();
+        coreProperties.setSignedToken(props);
+
+        SnowFlakeService snowFlakeService = mock(SnowFlakeService.class);
+        when(snowFlakeService.nextId()).thenReturn(100L);
+        tokenRevocations = mock(TokenRevocations.class);
+
+        accessTokens = new AccessTokens();
+        ReflectionTestUtils.setField(accessTokens, "coreProperties", coreProperties);
+        ReflectionTestUtils.setField(accessTokens, "snowFlakeService", snowFlakeService);
+        ReflectionTestUtils.setField(accessTokens, "tokenRevocations", tokenRevocations);
+        accessTokens.init();
+    }
+
+    @Test
+    public void issueAndVerify() throws UnsignedException {
+        long expiresAt = accessTokens.nextExpiresAt();
+        SignedTokenDTO dto = accessTokens.verify(accessTokens.issue(1L, PERMISSION_HASH, expiresAt));
+
+        assertEquals(Long.valueOf(100L), dto.getTokenId());
+        assertEquals(Long.valueOf(1L), dto.getUserId());
+        assertEquals(Long.valueOf(expiresAt), dto.getExpiresAt());
+        assertEquals(PERMISSION_HASH, dto.getPermissionHash());
+    }
+
+    @Test(expected = UnsignedException.class)
+    public void tamperedPayload() throws UnsignedException {
+        byte[] bytes = Base64.getUrlDecoder()
+                .decode(accessTokens.issue(1L, PERMISSION_HASH, accessTokens.nextExpiresAt()));
+        // 用户ID的最低字节
+        bytes[16]++;
+
+        accessTokens.verify(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes));
+    }
+
+    @Test(expected = UnsignedException.class)
+    public void tamperedSignature() throws UnsignedException {
+        byte[] bytes = Base64.getUrlDecoder()
+                .decode(accessTokens.issue(1L, PERMISSION_HASH, accessTokens.nextExpiresAt()));
+        bytes[bytes.length - 1]++;
+
+        accessTokens.verify(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes));
+    }
+
+    @Test(expected = UnsignedException.class)
+    public void expired() throws UnsignedException {
+        long expiresAt = System.currentTimeMillis() / 1000 - 1;
+        accessTokens.verify(accessTokens.issue(1L, PERMISSION_HASH, expiresAt));
+    }
+
+    @Test(expected = UnsignedException.class)
+    public void revoked() throws UnsignedException {
+        when(tokenRevocations.isRevoked(100L)).thenReturn(true);
+        accessTokens.verify(accessTokens.issue(1L, PERMISSION_HASH, accessTokens.nextExpiresAt()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void secretRequired() {
+        SignedTokenProp props = new SignedTokenProp();
+        props.setRequireSecret(true);
+        CoreProperties coreProperties = new CoreProperties();
+        coreProperties.setSignedToken(props);
+
+        AccessTokens withoutSecret = new AccessTokens();
+        ReflectionTestUtils.setField(withoutSecret, "coreProperties", coreProperties);
+        withoutSecret.init();
+    }
+
+}
@@ -2,6 +2,9 @@ package com.spldeolin.beginningmind.launch.test;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -71,11 +74,32 @@ public class CommonServiceTest {
         log.info(userService.list(Lists.newArrayList(9L, 10L, 0L, 11L)).size());
     }
 
+    @Test
+    public void getAsync() {
+        // 同一个窗口内的getAsync合并为一次selectBatchIds
+        List<CompletableFuture<Optional<UserEntity>>> futures = Lists.newArrayList(
+                userService.getAsync(309844787728385L), userService.getAsync(303270472060928L),
+                userService.getAsync(0L), userService.getAsync(309844787728385L));
+        futures.forEach(future -> log.info(future.join()));
+
+        log.info(userService.listAsync(Lists.newArrayList(9L, 10L, 0L, 11L)).join().size());
+    }
+
     @Test
     public void listAll() {
         userService.listAll().forEach(log::info);
     }
 
+    @Test
+    public void forEachBatch() {
+        userService.forEachBatch(new LambdaQueryWrapper<UserEntity>().like(UserEntity::getName, "批量"), 2,
+                batch -> log.info(batch.size()));
+
+        try (Stream<UserEntity> users = userService.stream(null)) {
+            log.info(users.count());
+        }
+    }
+
     @Test
     public void update() {
         UserEntity user = new UserEntity();
@@ -107,6 +131,23 @@ public class CommonServiceTest {
         userService.update(set, where);
     }
 
+    @Test
+    public void bulkUpdateAndUpsert() {
+        List<UserEntity> users = userService.searchBatch(UserEntity::getName, "批量0");
+        users.forEach(user -> user.setSerialNumber(RandomStringUtils.randomAlphabetic(2)));
+        log.info(userService.update(users));
+        log.info(userService.update(users)); // version已递增，但数据库中也已递增，不冲突
+
+        users.forEach(user -> user.setVersion(user.getVersion() - 1));
+        log.info(userService.update(users)); // 乐观锁冲突，全部记入conflictIds
+
+        UserEntity newUser = new UserEntity();
+        newUser.setName("批量upsert");
+        newUser.setMobile("0");
+        users.add(newUser);
+        log.info(userService.upsert(users)); // 旧version的行冲突，新实体插入
+    }
+
     @Test
     public void delete() {
         userService.delete(400214720647168L);
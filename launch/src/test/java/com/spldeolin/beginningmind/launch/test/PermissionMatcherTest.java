@@ -0,0 +1,52 @@
+package com.spldeolin.beginningmind.launch.test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import com.google.common.collect.Lists;
+import com.spldeolin.beginningmind.core.entity.PermissionEntity;
+import com.spldeolin.beginningmind.core.security.PermissionMatcher;
+
+/**
+ * @author Deolin 2026-10-18
+ */
+public class PermissionMatcherTest {
+
+    private PermissionMatcher matcher;
+
+    @Before
+    public void init() {
+        matcher = PermissionMatcher.compile(Lists.newArrayList(
+                new PermissionEntity("GET", "/user/get"),
+                new PermissionEntity("GET", "/user/list"),
+                new PermissionEntity("post", "/user/{id}/update"),
+                new PermissionEntity("GET", "/image/*/raw")));
+    }
+
+    @Test
+    public void literal() {
+        assertTrue(matcher.matches("GET", "/user/get"));
+        assertTrue(matcher.matches("get", "/user/list"));
+        assertFalse(matcher.matches("GET", "/user/ge"));
+        assertFalse(matcher.matches("POST", "/user/get"));
+        assertFalse(matcher.matches("DELETE", "/user/get"));
+    }
+
+    @Test
+    public void prefix() {
+        // 与url.startsWith(mappingPath)一致
+        assertTrue(matcher.matches("GET", "/user/get/1"));
+    }
+
+    @Test
+    public void pathVariable() {
+        assertTrue(matcher.matches("POST", "/user/12/update"));
+        assertFalse(matcher.matches("POST", "/user//update"));
+        assertFalse(matcher.matches("POST", "/user/12/updat"));
+        assertTrue(matcher.matches("GET", "/image/a/raw"));
+        assertFalse(matcher.matches("GET", "/image/a/b/raw"));
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.spldeolin.beginningmind.launch.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.google.common.collect.Maps;
+import com.spldeolin.beginningmind.core.datasource.DataSourceRole;
+import com.spldeolin.beginningmind.core.datasource.DataSourceRouting;
+import com.spldeolin.beginningmind.core.datasource.ReplicaLagMonitor;
+import com.spldeolin.beginningmind.core.datasource.ReplicaRoutingDataSource;
+import com.spldeolin.beginningmind.core.util.WebContext;
+
+/**
+ * 读写分离的路由，以两个H2内存库代替主库与从库，每个库的whoami表记录自己的名字
+ *
+ * @author Deolin 2026-10-18
+ */
+public class ReadWriteSplittingTest {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Before
+    public void setup() throws SQLException {
+        Map<String, DataSource> replicas = Maps.newLinkedHashMap();
+        replicas.put("replica0", newDatabase("replica0"));
+        routingDataSource = new ReplicaRoutingDataSource(newDatabase("primary"), replicas);
+    }
+
+    @After
+    public void cleanup() {
+        WebContext.removeWrotePrimary();
+        WebContext.removeRequest();
+    }
+
+    @Test
+    public void primaryByDefault() throws SQLException {
+        assertEquals("primary", whoami());
+    }
+
+    @Test
+    public void replicaWhenDeclared() throws SQLException {
+        assertEquals("replica0", whoamiFromReplica());
+    }
+
+    @Test
+    public void primaryInTransaction() throws SQLException {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertEquals("primary", whoamiFromReplica());
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    /**
+     * 与生产配置一致：DataSourceRoutingAspect先声明从库，再由事务管理器开启事务
+     */
+    @Test
+    public void primaryInTransactionManager() {
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(
+                new LazyConnectionDataSourceProxy(routingDataSource));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        DataSourceRouting.push(DataSourceRole.REPLICA);
+        try {
+            assertEquals("primary", transactionTemplate.execute(status -> whoamiInTransaction(transactionManager)));
+
+            transactionTemplate.setReadOnly(true);
+            assertEquals("replica0", transactionTemplate.execute(status -> whoamiInTransaction(transactionManager)));
+        } finally {
+            DataSourceRouting.pop();
+        }
+    }
+
+    @Test
+    public void readYourWrites() throws SQLException {
+        WebContext.setRequest(new MockHttpServletRequest());
+        assertEquals("replica0", whoamiFromReplica());
+
+        WebContext.markWrotePrimary();
+        assertEquals("primary", whoamiFromReplica());
+    }
+
+    @Test
+    public void lagFallback() throws SQLException {
+        new ReplicaLagMonitor(routingDataSource, 5, "SELECT 30 AS lag", "lag").check();
+        assertEquals("primary", whoamiFromReplica());
+
+        new ReplicaLagMonitor(routingDataSource, 5, "SELECT 1 AS lag", "lag").check();
+        assertEquals("replica0", whoamiFromReplica());
+    }
+
+    private String whoamiFromReplica() throws SQLException {
+        DataSourceRouting.push(DataSourceRole.REPLICA);
+        try {
+            return whoami();
+        } finally {
+            DataSourceRouting.pop();
+        }
+    }
+
+    private String whoami() throws SQLException {
+        try (Connection connection = routingDataSource.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT name FROM whoami")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private String whoamiInTransaction(DataSourceTransactionManager transactionManager) {
+        DataSource dataSource = transactionManager.getDataSource();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT name FROM whoami")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static DataSource newDatabase(String name) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS whoami (name VARCHAR(16))");
+            statement.execute("DELETE FROM whoami");
+            statement.execute("INSERT INTO whoami VALUES ('" + name + "')");
+        }
+        return dataSource;
+    }
+
+}
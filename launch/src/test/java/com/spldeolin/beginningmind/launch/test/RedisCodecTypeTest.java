@@ -0,0 +1,100 @@
+package com.spldeolin.beginningmind.launch.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.Bytes;
+import com.spldeolin.beginningmind.core.redis.JdkRedisCodec;
+import com.spldeolin.beginningmind.core.redis.KryoRedisCodec;
+import com.spldeolin.beginningmind.core.redis.ProtostuffSerializer;
+import com.spldeolin.beginningmind.core.redis.SmileRedisCodec;
+
+/**
+ * 编解码器只还原允许的类型
+ *
+ * @author Deolin 2026-10-18
+ */
+public class RedisCodecTypeTest {
+
+    @Test
+    public void smileAllowed() {
+        SmileRedisCodec codec = new SmileRedisCodec();
+        Map<String, Object> map = Maps.newHashMap();
+        map.put("id", 1L);
+        map.put("at", LocalDateTime.of(2026, 10, 18, 10, 0));
+
+        assertEquals(map, codec.deserialize(codec.serialize(map)));
+    }
+
+    @Test(expected = SerializationException.class)
+    public void smileRejected() {
+        SmileRedisCodec codec = new SmileRedisCodec();
+        codec.deserialize(codec.serialize(new AtomicLong(1L)));
+    }
+
+    @Test
+    public void kryoAllowed() {
+        KryoRedisCodec codec = new KryoRedisCodec();
+        List<Object> list = Lists.newArrayList(1L, "a");
+
+        assertEquals(list, codec.deserialize(codec.serialize(list)));
+    }
+
+    @Test(expected = SerializationException.class)
+    public void kryoRejected() {
+        KryoRedisCodec codec = new KryoRedisCodec();
+        codec.deserialize(codec.serialize(new AtomicLong(1L)));
+    }
+
+    @Test
+    public void jdkAllowed() {
+        JdkRedisCodec codec = new JdkRedisCodec();
+        List<Object> list = Lists.newArrayList(1L, "a");
+
+        assertEquals(list, codec.deserialize(codec.serialize(list)));
+    }
+
+    @Test(expected = SerializationException.class)
+    public void jdkRejected() {
+        JdkRedisCodec codec = new JdkRedisCodec();
+        codec.deserialize(codec.serialize(new AtomicLong(1L)));
+    }
+
+    @Test(expected = SerializationException.class)
+    public void protostuffRejected() {
+        byte[] name = "java.net.URL".getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[5 + name.length];
+        // MAGIC FLAG_PLAIN KIND_POJO 类名长度(2) 类名
+        bytes[0] = (byte) 0xBD;
+        bytes[1] = 0;
+        bytes[2] = 5;
+        bytes[3] = 0;
+        bytes[4] = (byte) name.length;
+        System.arraycopy(name, 0, bytes, 5, name.length);
+
+        new ProtostuffSerializer().deserialize(bytes);
+    }
+
+    @Test(expected = SerializationException.class)
+    public void protostuffWrappedRejected() {
+        ProtostuffSerializer serializer = new ProtostuffSerializer();
+        byte[] bytes = serializer.serialize(new AtomicLong(1L));
+        // 包装类中的类名替换为等长的、本进程中未被Protostuff加载过的类名
+        byte[] from = AtomicLong.class.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] to = "java.util.concurrent.ConcurrentHashMap".getBytes(StandardCharsets.UTF_8);
+        int index = Bytes.indexOf(bytes, from);
+        assertEquals(from.length, to.length);
+        System.arraycopy(to, 0, bytes, index, to.length);
+
+        serializer.deserialize(bytes);
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.spldeolin.beginningmind.launch.test;
 
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,6 +9,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import com.spldeolin.beginningmind.core.redis.RedisLock;
+import com.spldeolin.beginningmind.core.redis.RedisReentrantLock;
 import lombok.extern.log4j.Log4j2;
 
 /**
@@ -23,6 +25,9 @@ public class RedisLockTest {
     @Autowired
     private RedisLock redisLock;
 
+    @Autowired
+    private RedisReentrantLock redisReentrantLock;
+
     @Test
     public void lock() {
         String key = "goods" + 1001L;
@@ -35,4 +40,31 @@ public class RedisLockTest {
         log.info("结束");
     }
 
-}
\ No newline at end of file
+    @Test
+    public void reentrantLock() throws InterruptedException {
+        String key = "goods" + 1002L;
+
+        long token = redisReentrantLock.tryLock(key, 1, TimeUnit.SECONDS);
+        log.info(token);
+        log.info(redisReentrantLock.tryLock(key, 1, TimeUnit.SECONDS) == token);
+
+        Thread other = new Thread(() -> {
+            try {
+                // 第一次释放后仍被重入持有，第二次释放时通过pub/sub唤醒
+                log.info(redisReentrantLock.tryLock(key, 5, TimeUnit.SECONDS) > token);
+                redisReentrantLock.unlock(key);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        other.start();
+
+        Thread.sleep(500);
+        log.info(redisReentrantLock.unlock(key));
+        log.info(redisReentrantLock.unlock(key));
+        other.join();
+
+        log.info("结束");
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.spldeolin.beginningmind.launch.test.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.ibatis.session.SqlSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import com.baomidou.mybatisplus.core.enums.SqlMethod;
+import com.baomidou.mybatisplus.extension.toolkit.SqlHelper;
+import com.google.common.collect.Lists;
+import com.spldeolin.beginningmind.biz.entity.BizDemoEntity;
+import com.spldeolin.beginningmind.biz.service.BizDemoService;
+import com.spldeolin.beginningmind.core.service.SnowFlakeService;
+import com.spldeolin.beginningmind.launch.Startup;
+
+/**
+ * 插入10万个BizDemoEntity：多行INSERT（CommonService.create）与ExecutorType.BATCH逐条INSERT的耗时对比
+ *
+ * 需要dev环境的MySQL，直接运行main方法；每次插入后按ID范围物理删除
+ *
+ * @author Deolin 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MultiRowInsertBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    private static final int BATCH_FLUSH_SIZE = 1000;
+
+    @Param({"multiRow", "batch"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+
+    private BizDemoService bizDemoService;
+
+    private SnowFlakeService snowFlakeService;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private List<BizDemoEntity> entities;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(Startup.class).web(WebApplicationType.NONE).profiles("dev").run();
+        bizDemoService = context.getBean(BizDemoService.class);
+        snowFlakeService = context.getBean(SnowFlakeService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        context.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void newEntities() {
+        entities = Lists.newArrayListWithCapacity(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            entities.add(newEntity(i));
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteInserted() {
+        jdbcTemplate.update("DELETE FROM biz_demo WHERE id BETWEEN ? AND ?", entities.get(0).getId(),
+                entities.get(ROWS - 1).getId());
+    }
+
+    @Benchmark
+    public void insert() {
+        if ("multiRow".equals(mode)) {
+            bizDemoService.create(entities);
+        } else {
+            insertInBatchMode();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(MultiRowInsertBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+
+    /**
+     * 多行INSERT之前CommonServiceImpl.create(Collection)的实现
+     */
+    private void insertInBatchMode() {
+        long[] ids = snowFlakeService.nextIds(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            entities.get(i).setId(ids[i]);
+        }
+
+        String sqlStatement = SqlHelper.table(BizDemoEntity.class).getSqlStatement(SqlMethod.INSERT_ONE.getMethod());
+        try (SqlSession batchSqlSession = SqlHelper.sqlSessionBatch(BizDemoEntity.class)) {
+            int i = 0;
+            for (BizDemoEntity entity : entities) {
+                batchSqlSession.insert(sqlStatement, entity);
+                if (i >= 1 && i % BATCH_FLUSH_SIZE == 0) {
+                    batchSqlSession.flushStatements();
+                }
+                i++;
+            }
+            batchSqlSession.flushStatements();
+        }
+    }
+
+    private static BizDemoEntity newEntity(int i) {
+        BizDemoEntity entity = new BizDemoEntity();
+        entity.setCredentialNumber("33010219900101" + String.format("%04d", i % 10000));
+        entity.setCredentialType((byte) 1);
+        entity.setEducationLevel((byte) 4);
+        entity.setEmail("demo" + i + "@example.com");
+        entity.setEnableSign(true);
+        entity.setInductionDate(LocalDate.of(2019, 3, 18));
+        entity.setMobile("180" + String.format("%08d", i));
+        entity.setName("压测" + i);
+        entity.setSchool("浙江大学");
+        entity.setSex((byte) (i % 2 + 1));
+        entity.setUserNumber("B" + i);
+        entity.setWorkStatus((byte) 1);
+        entity.setWorkTitle("工程师");
+        return entity;
+    }
+
+}
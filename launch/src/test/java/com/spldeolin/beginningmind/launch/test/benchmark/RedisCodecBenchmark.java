@@ -0,0 +1,172 @@
+package com.spldeolin.beginningmind.launch.test.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import com.spldeolin.beginningmind.core.entity.UserEntity;
+import com.spldeolin.beginningmind.core.filter.dto.MappedCallDTO;
+import com.spldeolin.beginningmind.core.filter.dto.RequestTrackDTO;
+import com.spldeolin.beginningmind.core.redis.JdkRedisCodec;
+import com.spldeolin.beginningmind.core.redis.KryoRedisCodec;
+import com.spldeolin.beginningmind.core.redis.ProtostuffSerializer;
+import com.spldeolin.beginningmind.core.redis.RedisCodec;
+import com.spldeolin.beginningmind.core.redis.SmileRedisCodec;
+import com.spldeolin.beginningmind.core.security.dto.CurrentSignerDTO;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 各Redis编解码器的编码/解码吞吐量、内存分配速率（gc.alloc.rate.norm）与编码后大小对比
+ *
+ * 直接运行main方法，编码后大小在开始前打印
+ *
+ * @author Deolin 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Log4j2
+public class RedisCodecBenchmark {
+
+    @Param({ProtostuffSerializer.NAME, KryoRedisCodec.NAME, SmileRedisCodec.NAME, JdkRedisCodec.NAME})
+    private String codecName;
+
+    @Param({"user", "signer", "track"})
+    private String payloadName;
+
+    private RedisCodec codec;
+
+    private Object payload;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        codec = newCodec(codecName);
+        payload = newPayload(payloadName);
+        encoded = codec.serialize(payload);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.serialize(payload);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return codec.deserialize(encoded);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        printPayloadSizes();
+        Options options = new OptionsBuilder().include(RedisCodecBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class).build();
+        new Runner(options).run();
+    }
+
+    private static void printPayloadSizes() {
+        for (String payloadName : new String[]{"user", "signer", "track"}) {
+            Object payload = newPayload(payloadName);
+            for (String codecName : new String[]{ProtostuffSerializer.NAME, KryoRedisCodec.NAME,
+                    SmileRedisCodec.NAME, JdkRedisCodec.NAME}) {
+                int size = newCodec(codecName).serialize(payload).length;
+                log.info("{}\t{}\t{} bytes", payloadName, codecName, size);
+            }
+        }
+    }
+
+    private static RedisCodec newCodec(String codecName) {
+        switch (codecName) {
+            case ProtostuffSerializer.NAME:
+                return new ProtostuffSerializer();
+            case KryoRedisCodec.NAME:
+                return new KryoRedisCodec();
+            case SmileRedisCodec.NAME:
+                return new SmileRedisCodec();
+            case JdkRedisCodec.NAME:
+                return new JdkRedisCodec();
+            default:
+                throw new IllegalArgumentException(codecName);
+        }
+    }
+
+    private static Object newPayload(String payloadName) {
+        switch (payloadName) {
+            case "user":
+                return newUser();
+            case "signer":
+                return newSigner();
+            case "track":
+                return newTrack();
+            default:
+                throw new IllegalArgumentException(payloadName);
+        }
+    }
+
+    private static UserEntity newUser() {
+        UserEntity user = new UserEntity();
+        user.setId(1063425178429763584L);
+        user.setInsertedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+        user.setIsDeleted(false);
+        user.setVersion(3);
+        user.setSerialNumber("U20181115001");
+        user.setName("Deolin");
+        user.setMobile("18012345678");
+        user.setEmail("deolin@example.com");
+        user.setPassword("0f0e5bb0c0d5e4d1a5dd0f3c5e8d2b2c7a1f6e4d");
+        user.setSalt("8f3c2a1b");
+        user.setEnableSign(true);
+        return user;
+    }
+
+    private static CurrentSignerDTO newSigner() {
+        CurrentSignerDTO signer = new CurrentSignerDTO();
+        signer.setSessionId("7c1e0f53-2b6a-4f0e-9d38-3a4b1c2d5e6f");
+        signer.setUserId(1063425178429763584L);
+        signer.setSignedAt(LocalDateTime.now());
+        signer.setPermissionHash("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08");
+        return signer;
+    }
+
+    private static RequestTrackDTO newTrack() {
+        RequestTrackDTO track = new RequestTrackDTO();
+        track.setHttpMethod("POST");
+        track.setUrl("http://localhost:2333/user/create");
+        track.setRequestContent("{\"name\":\"Deolin\",\"mobile\":\"18012345678\"}");
+        track.setResponseContent("{\"code\":200,\"data\":1063425178429763584}");
+        track.setUserAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
+        track.setFullName("com.spldeolin.beginningmind.core.controller.UserController.create");
+        track.setElapsed(12L);
+        for (int i = 0; i < 5; i++) {
+            MappedCallDTO mapperCall = new MappedCallDTO();
+            mapperCall.setTarget("com.spldeolin.beginningmind.core.mapper.UserMapper.insert");
+            mapperCall.setElapsed((long) i);
+            track.getMapperCalls().add(mapperCall);
+        }
+        track.setUserId(1063425178429763584L);
+        track.setUserName("Deolin");
+        track.setUserMobile("18012345678");
+        track.setIp("127.0.0.1");
+        track.setSessionId("7c1e0f53-2b6a-4f0e-9d38-3a4b1c2d5e6f");
+        return track;
+    }
+
+}
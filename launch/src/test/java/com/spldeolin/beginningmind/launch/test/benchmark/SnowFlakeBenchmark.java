@@ -0,0 +1,128 @@
+package com.spldeolin.beginningmind.launch.test.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.spldeolin.beginningmind.core.CoreProperties;
+import com.spldeolin.beginningmind.core.CoreProperties.SnowFlakeProp;
+import com.spldeolin.beginningmind.core.service.impl.SnowFlakeServiceImpl;
+import com.spldeolin.beginningmind.core.util.Times;
+
+/**
+ * 雪花算法 synchronized实现与CAS实现的吞吐量对比（1/8/32线程）
+ *
+ * 直接运行main方法
+ *
+ * @author Deolin 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnowFlakeBenchmark {
+
+    private SynchronizedSnowFlake synchronizedSnowFlake;
+
+    private SnowFlakeServiceImpl casSnowFlake;
+
+    @Setup
+    public void setup() {
+        synchronizedSnowFlake = new SynchronizedSnowFlake(1, 1);
+
+        SnowFlakeProp snowFlakeProp = new SnowFlakeProp();
+        snowFlakeProp.setDatacenterId(1L);
+        snowFlakeProp.setMachineId(1L);
+        CoreProperties coreProperties = new CoreProperties();
+        coreProperties.setSnowFlake(snowFlakeProp);
+        casSnowFlake = new SnowFlakeServiceImpl();
+        ReflectionTestUtils.setField(casSnowFlake, "coreProperties", coreProperties);
+        casSnowFlake.initDatacenterAndMachine();
+    }
+
+    @Benchmark
+    public long synchronizedNextId() {
+        return synchronizedSnowFlake.nextId();
+    }
+
+    @Benchmark
+    public long casNextId() {
+        return casSnowFlake.nextId();
+    }
+
+    /**
+     * 每次取1000个，吞吐量需乘以1000再与单个获取比较
+     */
+    @Benchmark
+    public long[] casNextIds() {
+        return casSnowFlake.nextIds(1000);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 8, 32}) {
+            Options options = new OptionsBuilder().include(SnowFlakeBenchmark.class.getSimpleName())
+                    .threads(threads).build();
+            new Runner(options).run();
+        }
+    }
+
+    /**
+     * 改造前的synchronized实现，仅作对照
+     */
+    private static class SynchronizedSnowFlake {
+
+        private final static long START_STMP = Times.toUnixTimestamp(LocalDateTime.of(2018, 11, 12, 13, 27, 37))
+                * 1000L;
+
+        private final static long MAX_SEQUENCE = ~(-1L << 12);
+
+        private final long datacenterId;
+
+        private final long machineId;
+
+        private long sequence = 0L;
+
+        private long lastStmp = -1L;
+
+        private SynchronizedSnowFlake(long datacenterId, long machineId) {
+            this.datacenterId = datacenterId;
+            this.machineId = machineId;
+        }
+
+        private synchronized long nextId() {
+            long currStmp = System.currentTimeMillis();
+            if (currStmp < lastStmp) {
+                throw new RuntimeException("Clock moved backwards.  Refusing to generate id");
+            }
+            if (currStmp == lastStmp) {
+                sequence = (sequence + 1) & MAX_SEQUENCE;
+                if (sequence == 0L) {
+                    while (currStmp <= lastStmp) {
+                        currStmp = System.currentTimeMillis();
+                    }
+                }
+            } else {
+                sequence = 0L;
+            }
+            lastStmp = currStmp;
+            return (currStmp - START_STMP) << 22 | datacenterId << 17 | machineId << 12 | sequence;
+        }
+
+    }
+
+}
@@ -1,6 +1,6 @@
 package ${packageReference}.dao;
 
-import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.spldeolin.beginningmind.core.common.CommonMapper;
 import ${packageReference}.entity.${entityName}Entity;
 
 /**
@@ -10,6 +10,6 @@ import ${packageReference}.entity.${entityName}Entity;
 </#if>
  * @author ${author}
  */
-public interface ${entityName}Mapper extends BaseMapper<${entityName}Entity> {
+public interface ${entityName}Mapper extends CommonMapper<${entityName}Entity> {
 
 }
\ No newline at end of file